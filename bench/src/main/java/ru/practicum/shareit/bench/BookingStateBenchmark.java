@@ -0,0 +1,65 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingStateBenchmark {
+    @Param({"10000"})
+    public int items;
+
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    public String state;
+
+    @Param({"20"})
+    public int size;
+
+    private ShareItBenchmarkContext context;
+    private BookingService bookingService;
+
+    @Setup
+    public void setUp() {
+        context = ShareItBenchmarkContext.start(items);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<BookingOutputDto> bookingsByBooker() {
+        return bookingService.getAllBookingsByUserId(randomUserId(), state, 0, size);
+    }
+
+    @Benchmark
+    public List<BookingOutputDto> bookingsByOwner() {
+        return bookingService.getAllBookingsByOwnerId(randomUserId(), state, 0, size);
+    }
+
+    private long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, context.getUsers() + 1);
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность вставки через saveAll при выключенном (0) и включенном пакетировании JDBC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+    @Param({"1000"})
+    public int items;
+
+    @Param({"0", "50"})
+    public int jdbcBatchSize;
+
+    @Param({"100"})
+    public int rowsPerCall;
+
+    private ShareItBenchmarkContext context;
+    private ItemRepository itemRepository;
+    private BookingRepository bookingRepository;
+    private JdbcTemplate jdbcTemplate;
+    private Item bookedItem;
+    private User booker;
+
+    @Setup
+    public void setUp() {
+        context = ShareItBenchmarkContext.start(items, "spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        itemRepository = context.getBean(ItemRepository.class);
+        bookingRepository = context.getBean(BookingRepository.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        bookedItem = itemRepository.findById(1L).orElseThrow();
+        booker = context.getBean(UserRepository.class).findById(bookedItem.getOwnerId() % context.getUsers() + 1).orElseThrow();
+    }
+
+    @TearDown(Level.Iteration)
+    public void removeInsertedRows() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id = ? AND start_date > ?", bookedItem.getId(),
+                LocalDateTime.now().plusYears(50));
+        jdbcTemplate.update("DELETE FROM items WHERE id > ?", items);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> saveAllItems() {
+        List<Item> newItems = new ArrayList<>(rowsPerCall);
+        for (int i = 0; i < rowsPerCall; i++) {
+            newItems.add(Item.builder()
+                    .name("пила")
+                    .description("новая пила")
+                    .available(true)
+                    .ownerId(1L)
+                    .build());
+        }
+        return itemRepository.saveAll(newItems);
+    }
+
+    @Benchmark
+    public List<Booking> saveAllBookings() {
+        LocalDateTime start = LocalDateTime.now().plusYears(100);
+        List<Booking> newBookings = new ArrayList<>(rowsPerCall);
+        for (int i = 0; i < rowsPerCall; i++) {
+            newBookings.add(Booking.builder()
+                    .start(start.plusDays(i))
+                    .end(start.plusDays(i).plusHours(1))
+                    .item(bookedItem)
+                    .itemOwnerId(bookedItem.getOwnerId())
+                    .booker(booker)
+                    .status(Status.WAITING)
+                    .build());
+        }
+        return bookingRepository.saveAll(newBookings);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск с опечатками по индексу триграмм на миллионе вещей. Индекс строится в setUp первым поиском,
+ * поэтому измеряется только время запроса: подсчет общих триграмм, отбор лучших и загрузка страницы вещей.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ItemFuzzySearchBenchmark {
+    @Param({"1000000"})
+    public int items;
+
+    @Param({"дрель", "дрэль", "перфоратор шуруповрт", "нет такой вещи"})
+    public String text;
+
+    private ShareItBenchmarkContext context;
+    private ItemRepository itemRepository;
+    private PageRequest firstPage;
+
+    @Setup
+    public void setUp() {
+        context = ShareItBenchmarkContext.startWithoutBookings(items);
+        itemRepository = context.getBean(ItemRepository.class);
+        firstPage = PageRequest.of(0, 20);
+        itemRepository.fuzzySearchItemsByText(text, firstPage);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> fuzzySearchItemsByText() {
+        return itemRepository.fuzzySearchItemsByText(text, firstPage);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSearchBenchmark {
+    @Param({"10000"})
+    public int items;
+
+    @Param({"database", "index"})
+    public String engine;
+
+    @Param({"дрель", "перфоратор шуруповерт", "нет такой вещи"})
+    public String text;
+
+    private ShareItBenchmarkContext context;
+    private ItemRepository itemRepository;
+    private PageRequest firstPage;
+
+    @Setup
+    public void setUp() {
+        context = ShareItBenchmarkContext.start(items, "shareit.search.engine=" + engine);
+        itemRepository = context.getBean(ItemRepository.class);
+        firstPage = PageRequest.of(0, 20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Item> searchItemsByText() {
+        return itemRepository.searchItemsByText(text, firstPage);
+    }
+}
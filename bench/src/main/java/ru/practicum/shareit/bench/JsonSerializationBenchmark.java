@@ -0,0 +1,64 @@
+package ru.practicum.shareit.bench;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.item.ItemDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    @Param({"20", "1000"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private BookingOutputDto booking;
+    private List<BookingOutputDto> bookingPage;
+    private ItemDto item;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        booking = BookingMapper.toBookingDto(Samples.booking(1));
+        bookingPage = Samples.bookings(pageSize).stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+        item = Samples.itemDtoWithDetails(1, 10);
+    }
+
+    @Benchmark
+    public byte[] booking() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(booking);
+    }
+
+    @Benchmark
+    public byte[] bookingPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookingPage);
+    }
+
+    @Benchmark
+    public byte[] itemWithBookingsAndComments() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(item);
+    }
+}
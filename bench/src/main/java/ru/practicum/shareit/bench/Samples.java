@@ -0,0 +1,71 @@
+package ru.practicum.shareit.bench;
+
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class Samples {
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    private Samples() {
+    }
+
+    static Item item(long id) {
+        String name = ShareItBenchmarkContext.WORDS[(int) (id % ShareItBenchmarkContext.WORDS.length)];
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description("Надежная " + name + " в хорошем состоянии, можно брать на выходные")
+                .available(true)
+                .ownerId(1L)
+                .requestId(id % 2 == 0 ? id : null)
+                .build();
+    }
+
+    static Booking booking(long id) {
+        return Booking.builder()
+                .id(id)
+                .start(START.plusDays(id))
+                .end(START.plusDays(id + 2))
+                .item(item(id))
+                .itemOwnerId(1L)
+                .booker(User.builder().id(2L).name("user2").email("user2@shareit.ru").build())
+                .status(Status.APPROVED)
+                .build();
+    }
+
+    static List<Booking> bookings(int count) {
+        List<Booking> bookings = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            bookings.add(booking(id));
+        }
+        return bookings;
+    }
+
+    static ItemDto itemDtoWithDetails(long id, int comments) {
+        ItemDto itemDto = ItemMapper.toItemDto(item(id));
+        itemDto.setLastBooking(BookingMapper.toBookingDto(booking(id)));
+        itemDto.setNextBooking(BookingMapper.toBookingDto(booking(id + 1)));
+        List<CommentDto> commentDtos = new ArrayList<>(comments);
+        for (long commentId = 1; commentId <= comments; commentId++) {
+            commentDtos.add(CommentDto.builder()
+                    .id(commentId)
+                    .text("Все отлично, вещь в рабочем состоянии")
+                    .authorName("user" + commentId)
+                    .created(START.minusDays(commentId))
+                    .itemId(id)
+                    .build());
+        }
+        itemDto.setComments(commentDtos);
+        return itemDto;
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.bench;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.enums.Status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Поднимает контекст сервера без веб-слоя на встроенной H2 и наполняет базу синтетическими данными.
+ * На каждую вещь приходится по три бронирования (прошлое, текущее, будущее), на пользователя — около десяти вещей;
+ * startWithoutBookings пропускает бронирования для бенчмарков поиска на миллионе вещей.
+ * Системное свойство shareit.bench.datasource-url переключает бенчмарки на внешнюю PostgreSQL.
+ */
+public final class ShareItBenchmarkContext implements AutoCloseable {
+    static final String[] WORDS = {"дрель", "отвертка", "пила", "молоток", "клей", "лестница", "палатка", "велосипед",
+            "перфоратор", "шуруповерт", "рюкзак", "спальник", "фонарь", "удочка", "лопата", "тачка"};
+    private static final Status[] STATUSES = {Status.APPROVED, Status.APPROVED, Status.WAITING, Status.REJECTED};
+    private static final String DATASOURCE_URL_PROPERTY = "shareit.bench.datasource-url";
+    private static final int BATCH_SIZE = 1000;
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+
+    private final ConfigurableApplicationContext context;
+    private final int users;
+
+    private ShareItBenchmarkContext(ConfigurableApplicationContext context, int users) {
+        this.context = context;
+        this.users = users;
+    }
+
+    public static ShareItBenchmarkContext start(int items, String... properties) {
+        return start(items, true, properties);
+    }
+
+    public static ShareItBenchmarkContext startWithoutBookings(int items, String... properties) {
+        return start(items, false, properties);
+    }
+
+    private static ShareItBenchmarkContext start(int items, boolean withBookings, String... properties) {
+        String externalUrl = System.getProperty(DATASOURCE_URL_PROPERTY);
+        String[] args = Stream.concat(Stream.of(
+                        "--spring.datasource.url=" + (externalUrl != null ? externalUrl : "jdbc:h2:mem:shareit-bench;DB_CLOSE_DELAY=-1"),
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=WARN"),
+                Stream.of(properties).map(property -> "--" + property))
+                .toArray(String[]::new);
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE);
+        if (externalUrl == null) {
+            builder.profiles("test");
+        }
+        ConfigurableApplicationContext context = builder.run(args);
+        int users = Math.max(2, items / 10);
+        seed(context.getBean(JdbcTemplate.class), users, items, withBookings);
+        return new ShareItBenchmarkContext(context, users);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private static void seed(JdbcTemplate jdbcTemplate, int users, int items, boolean withBookings) {
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> userRows = new ArrayList<>();
+        for (long id = 1; id <= users; id++) {
+            userRows.add(new Object[]{id, "user" + id, "user" + id + "@shareit.ru"});
+        }
+        batchInsert(jdbcTemplate, "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", userRows);
+
+        List<Object[]> itemRows = new ArrayList<>();
+        List<Object[]> bookingRows = new ArrayList<>();
+        long bookingId = 1;
+        for (long id = 1; id <= items; id++) {
+            long ownerId = id % users + 1;
+            String name = WORDS[random.nextInt(WORDS.length)];
+            String description = name + " " + WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+            itemRows.add(new Object[]{id, name, description, random.nextInt(10) != 0, ownerId});
+            if (!withBookings) {
+                continue;
+            }
+
+            long bookerId = ownerId % users + 1;
+            LocalDateTime[] starts = {now.minusDays(10 + random.nextInt(100)), now.minusHours(1 + random.nextInt(24)),
+                    now.plusDays(1 + random.nextInt(100))};
+            for (LocalDateTime start : starts) {
+                bookingRows.add(new Object[]{bookingId++, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(2)), id,
+                        bookerId, ownerId, STATUSES[random.nextInt(STATUSES.length)].name()});
+            }
+        }
+        batchInsert(jdbcTemplate, "INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                itemRows);
+        batchInsert(jdbcTemplate,
+                "INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, item_owner_id, status) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                bookingRows);
+
+        restartSequence(jdbcTemplate, "users_id_seq", users);
+        restartSequence(jdbcTemplate, "items_id_seq", items);
+        restartSequence(jdbcTemplate, "bookings_id_seq", bookingId - 1);
+    }
+
+    private static void restartSequence(JdbcTemplate jdbcTemplate, String sequence, long maxId) {
+        // pooled-оптимизатор Hibernate считает значение последовательности верхней границей выделенного блока
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + (maxId + SEQUENCE_ALLOCATION_SIZE));
+    }
+
+    private static void batchInsert(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+}
@@ -1,60 +1,210 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, CachedSummary> bookerSummaries;
+    private final Cache<Long, CachedSummary> ownerSummaries;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ObjectProvider<WebClient> webClientProvider, MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                         @Value("${shareit-server.bookings.summary.maximum-size:10000}") long summaryMaximumSize,
+                         @Value("${shareit-server.bookings.summary.expire-after-write:5s}") Duration summaryExpireAfterWrite) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                webClient(webClientProvider, serverUrl + API_PREFIX),
+                meterRegistry,
+                API_PREFIX
         );
+        this.objectMapper = objectMapper;
+        this.bookerSummaries = summaryCache(summaryMaximumSize, summaryExpireAfterWrite);
+        this.ownerSummaries = summaryCache(summaryMaximumSize, summaryExpireAfterWrite);
+        CaffeineCacheMetrics.monitor(meterRegistry, bookerSummaries, "bookings.summary.booker");
+        CaffeineCacheMetrics.monitor(meterRegistry, ownerSummaries, "bookings.summary.owner");
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookingInputDto bookingDto) {
-        return post("", userId, bookingDto);
-    }
-
-    public ResponseEntity<Object> approveOrRejectBooking(long bookingId, long ownerId, boolean approved) {
-        String path = "/" + bookingId + "?approved=" + approved;
-        return patch(path, ownerId);
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookingInputDto bookingDto) {
+        return post("", userId, bookingDto)
+                .doOnNext(response -> invalidateSummaries(userId, response));
     }
 
-    public ResponseEntity<Object> getBookingByBookingId(long bookingId, long userId) {
-        return get("/" + bookingId, userId);
+    public Mono<ResponseEntity<Object>> bookItems(long userId, List<BookingInputDto> bookingDtos) {
+        return post("/batch", userId, bookingDtos)
+                .doOnNext(response -> invalidateSummaries(userId, response));
     }
 
-    public ResponseEntity<Object> getAllBookingsByUserId(long userId, BookingState state, int from, int size) {
+    public Mono<ResponseEntity<Object>> approveOrRejectBooking(long bookingId, long ownerId, boolean approved) {
         Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
+                "bookingId", bookingId,
+                "approved", approved
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return patch("/{bookingId}?approved={approved}", ownerId, parameters, null)
+                .doOnNext(response -> invalidateSummaries(ownerId, response));
     }
 
-    public ResponseEntity<Object> getAllBookingsByOwnerId(long ownerId, BookingState state, int from, int size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+    public Mono<ResponseEntity<Object>> getBookingByBookingId(long bookingId, long userId) {
+        return get("/{bookingId}", userId, Map.of("bookingId", bookingId));
+    }
+
+    public Mono<ResponseEntity<Object>> getAllBookingsByUserId(long userId, BookingState state, int from, int size, String cursor) {
+        return get("?" + listQuery(cursor), userId, listParameters(state, from, size, cursor));
+    }
+
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwnerId(long ownerId, BookingState state, int from, int size, String cursor) {
+        return get("/owner?" + listQuery(cursor), ownerId, listParameters(state, from, size, cursor));
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingSummaryByUserId(long userId) {
+        return getSummary("/summary", userId, bookerSummaries);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingSummaryByOwnerId(long ownerId) {
+        return getSummary("/owner/summary", ownerId, ownerSummaries);
+    }
+
+    public void exportBookingsByUserId(long userId, BookingExportFormat format, HttpServletResponse target, OutputStream out) throws IOException {
+        forwardStream(HttpMethod.GET, "/export?format={format}", userId, Map.of("format", format.name()), target, out);
+    }
+
+    public void exportBookingsByOwnerId(long ownerId, BookingExportFormat format, HttpServletResponse target, OutputStream out) throws IOException {
+        forwardStream(HttpMethod.GET, "/owner/export?format={format}", ownerId, Map.of("format", format.name()), target, out);
+    }
+
+    /**
+     * Счетчики для вкладок интерфейса запрашиваются часто, поэтому успешный ответ сервера кэшируется на несколько секунд.
+     * Кэшируются только статус, тип и тело: заголовки статистики SQL относятся к исходному запросу и повторять их нельзя.
+     */
+    private Mono<ResponseEntity<Object>> getSummary(String path, long userId, Cache<Long, CachedSummary> cache) {
+        CachedSummary cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return Mono.just(cached.toResponse());
+        }
+        return get(path, userId)
+                .doOnNext(response -> {
+                    if (response.getStatusCode().is2xxSuccessful()) {
+                        cache.put(userId, new CachedSummary(response));
+                    }
+                });
+    }
+
+    /**
+     * Бронирование через шлюз меняет счетчики и автора, и владельца вещи, поэтому сбрасываются записи обоих.
+     * Их id берутся из ответа сервера; если ответ не разобран, сбрасываются все записи.
+     */
+    private void invalidateSummaries(long userId, ResponseEntity<Object> response) {
+        bookerSummaries.invalidate(userId);
+        ownerSummaries.invalidate(userId);
+        if (!response.getStatusCode().is2xxSuccessful() || !(response.getBody() instanceof byte[])) {
+            return;
+        }
+        try {
+            JsonNode body = objectMapper.readTree((byte[]) response.getBody());
+            if (body.isArray()) {
+                body.forEach(this::invalidateParticipants);
+            } else {
+                invalidateParticipants(body);
+            }
+        } catch (IOException e) {
+            bookerSummaries.invalidateAll();
+            ownerSummaries.invalidateAll();
+        }
+    }
+
+    private void invalidateParticipants(JsonNode booking) {
+        JsonNode bookerId = booking.path("bookerId");
+        JsonNode ownerId = booking.path("item").path("ownerId");
+        if (bookerId.canConvertToLong()) {
+            bookerSummaries.invalidate(bookerId.asLong());
+        }
+        if (ownerId.canConvertToLong()) {
+            ownerSummaries.invalidate(ownerId.asLong());
+        }
+    }
+
+    private static Cache<Long, CachedSummary> summaryCache(long maximumSize, Duration expireAfterWrite) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    private static String listQuery(String cursor) {
+        String query = "state={state}&from={from}&size={size}";
+        if (cursor != null) {
+            query += "&cursor={cursor}";
+        }
+        return query;
+    }
+
+    private static Map<String, Object> listParameters(BookingState state, int from, int size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor != null) {
+            parameters.put("cursor", cursor);
+        }
+        return parameters;
+    }
+
+    private static class CachedSummary {
+        private final HttpStatus status;
+        @Nullable
+        private final MediaType contentType;
+        private final Object body;
+
+        CachedSummary(ResponseEntity<Object> response) {
+            this.status = response.getStatusCode();
+            this.contentType = response.getHeaders().getContentType();
+            this.body = response.getBody();
+        }
+
+        ResponseEntity<Object> toResponse() {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(status);
+            if (contentType != null) {
+                builder.contentType(contentType);
+            }
+            return builder.body(body);
+        }
     }
 }
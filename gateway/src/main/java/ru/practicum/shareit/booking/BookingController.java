@@ -12,10 +12,17 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingExportFormat;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.common.ParameterPaginationService;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
+import ru.practicum.shareit.exception.ValidationException;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
@@ -29,43 +36,82 @@ public class BookingController {
     private final ParameterPaginationService parameterPaginationService;
 
     @PostMapping
-    public ResponseEntity<Object> create(@RequestHeader(REQUEST_HEADER) long userId, @RequestBody BookingInputDto bookingDto) {
+    public Mono<ResponseEntity<Object>> create(@RequestHeader(REQUEST_HEADER) long userId, @RequestBody BookingInputDto bookingDto) {
         log.info("Получен запрос к эндпоинту: {} {}", "POST", "/bookings");
         bookingValidationService.validateTime(bookingDto);
         return bookingClient.bookItem(userId, bookingDto);
     }
 
+    @PostMapping(value = "/batch")
+    public Mono<ResponseEntity<Object>> createBatch(@RequestHeader(REQUEST_HEADER) long userId, @RequestBody List<BookingInputDto> bookingDtos) {
+        log.info("Получен запрос к эндпоинту: {} {}", "POST", "/bookings/batch");
+        bookingValidationService.validateBatch(bookingDtos);
+        return bookingClient.bookItems(userId, bookingDtos);
+    }
+
     @PatchMapping(value = "/{" + BOOKING_ID_PATH_VARIABLE + "}")
-    public ResponseEntity<Object> approveOrRejectBooking(@PathVariable(value = BOOKING_ID_PATH_VARIABLE) long bookingId, @RequestHeader(REQUEST_HEADER) long ownerId, @RequestParam boolean approved) {
+    public Mono<ResponseEntity<Object>> approveOrRejectBooking(@PathVariable(value = BOOKING_ID_PATH_VARIABLE) long bookingId, @RequestHeader(REQUEST_HEADER) long ownerId, @RequestParam boolean approved) {
         log.info("Получен запрос к эндпоинту: {} /bookings/{}", "PATCH", bookingId);
         return bookingClient.approveOrRejectBooking(bookingId, ownerId, approved);
     }
 
     @GetMapping(value = "/{" + BOOKING_ID_PATH_VARIABLE + "}")
-    public ResponseEntity<Object> getBookingByBookingId(@PathVariable(value = BOOKING_ID_PATH_VARIABLE) long bookingId, @RequestHeader(REQUEST_HEADER) long userId) {
+    public Mono<ResponseEntity<Object>> getBookingByBookingId(@PathVariable(value = BOOKING_ID_PATH_VARIABLE) long bookingId, @RequestHeader(REQUEST_HEADER) long userId) {
         log.info("Получен запрос к эндпоинту: {} /bookings/{}", "GET", bookingId);
         return bookingClient.getBookingByBookingId(bookingId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsByUserId(@RequestHeader(REQUEST_HEADER) long userId, @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+    public Mono<ResponseEntity<Object>> getAllBookingsByUserId(@RequestHeader(REQUEST_HEADER) long userId, @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
                                                          @RequestParam(required = false, defaultValue = "0") int from,
-                                                         @RequestParam(required = false, defaultValue = "10") int size) {
-        log.info("Получен запрос к эндпоинту: {} /bookings?from={}&size={}", "GET", from, size);
+                                                         @RequestParam(required = false, defaultValue = "10") int size,
+                                                         @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос к эндпоинту: {} /bookings?from={}&size={}&cursor={}", "GET", from, size, cursor);
         parameterPaginationService.validateRequestParameters(from, size);
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(UnsupportedStatusException::new);
-        return bookingClient.getAllBookingsByUserId(userId, state, from, size);
+        return bookingClient.getAllBookingsByUserId(userId, state, from, size, cursor);
+    }
+
+    @GetMapping(value = "/summary")
+    public Mono<ResponseEntity<Object>> getBookingSummaryByUserId(@RequestHeader(REQUEST_HEADER) long userId) {
+        log.info("Получен запрос к эндпоинту: {} /bookings/summary", "GET");
+        return bookingClient.getBookingSummaryByUserId(userId);
+    }
+
+    @GetMapping(value = "/owner/summary")
+    public Mono<ResponseEntity<Object>> getBookingSummaryByOwner(@RequestHeader(REQUEST_HEADER) long ownerId) {
+        log.info("Получен запрос к эндпоинту: {} /bookings/owner/summary", "GET");
+        return bookingClient.getBookingSummaryByOwnerId(ownerId);
+    }
+
+    @GetMapping(value = "/export")
+    public StreamingResponseBody exportBookingsByUserId(@RequestHeader(REQUEST_HEADER) long userId,
+                                                        @RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) {
+        log.info("Получен запрос к эндпоинту: {} /bookings/export?format={}", "GET", format);
+        BookingExportFormat exportFormat = BookingExportFormat.from(format)
+                .orElseThrow(() -> new ValidationException("Неизвестный формат выгрузки: " + format));
+        return out -> bookingClient.exportBookingsByUserId(userId, exportFormat, response, out);
+    }
+
+    @GetMapping(value = "/owner/export")
+    public StreamingResponseBody exportBookingsByOwner(@RequestHeader(REQUEST_HEADER) long ownerId,
+                                                       @RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) {
+        log.info("Получен запрос к эндпоинту: {} /bookings/owner/export?format={}", "GET", format);
+        BookingExportFormat exportFormat = BookingExportFormat.from(format)
+                .orElseThrow(() -> new ValidationException("Неизвестный формат выгрузки: " + format));
+        return out -> bookingClient.exportBookingsByOwnerId(ownerId, exportFormat, response, out);
     }
 
     @GetMapping(value = "/owner")
-    public ResponseEntity<Object> getAllBookingsByOwner(@RequestHeader(REQUEST_HEADER) long ownerId, @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwner(@RequestHeader(REQUEST_HEADER) long ownerId, @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
                                                         @RequestParam(required = false, defaultValue = "0") int from,
-                                                        @RequestParam(required = false, defaultValue = "10") int size) {
-        log.info("Получен запрос к эндпоинту: {} /bookings/owner?from={}&size={}", "GET", from, size);
+                                                        @RequestParam(required = false, defaultValue = "10") int size,
+                                                        @RequestParam(required = false) String cursor) {
+        log.info("Получен запрос к эндпоинту: {} /bookings/owner?from={}&size={}&cursor={}", "GET", from, size, cursor);
         parameterPaginationService.validateRequestParameters(from, size);
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(UnsupportedStatusException::new);
-        return bookingClient.getAllBookingsByOwnerId(ownerId, state, from, size);
+        return bookingClient.getAllBookingsByOwnerId(ownerId, state, from, size, cursor);
     }
 }
@@ -5,9 +5,26 @@ import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.exception.ValidationException;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Component
 public class BookingValidationService {
+    private static final int MAX_BATCH_SIZE = 100;
+
+    public void validateBatch(List<BookingInputDto> bookingDtos) {
+        if (bookingDtos == null || bookingDtos.isEmpty()) {
+            throw new ValidationException("Список бронирований не может быть пустым.");
+        }
+        if (bookingDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("За один запрос можно создать не более " + MAX_BATCH_SIZE + " бронирований.");
+        }
+        for (BookingInputDto bookingDto : bookingDtos) {
+            if (bookingDto == null || bookingDto.getItemId() == null) {
+                throw new ValidationException("Не указан id вещи для бронирования.");
+            }
+            validateTime(bookingDto);
+        }
+    }
 
     public void validateTime(BookingInputDto bookingDto) {
         LocalDateTime now = LocalDateTime.now().minusMinutes(1);
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.util.Optional;
+
+public enum BookingExportFormat {
+    NDJSON,
+    CSV;
+
+    public static Optional<BookingExportFormat> from(String format) {
+        for (BookingExportFormat exportFormat : values()) {
+            if (exportFormat.name().equalsIgnoreCase(format)) {
+                return Optional.of(exportFormat);
+            }
+        }
+        return Optional.empty();
+    }
+}
@@ -1,98 +1,259 @@
 package ru.practicum.shareit.client;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        HOP_BY_HOP_HEADERS.addAll(List.of(HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING, HttpHeaders.TE,
+                HttpHeaders.TRAILER, HttpHeaders.UPGRADE, HttpHeaders.PROXY_AUTHENTICATE, HttpHeaders.PROXY_AUTHORIZATION,
+                HttpHeaders.CONTENT_LENGTH));
+    }
+
+    private static final String CLIENT_METRIC_NAME = "shareit.gateway.client";
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     protected final RestTemplate rest;
+    @Nullable
+    protected final WebClient webClient;
+    private final MeterRegistry meterRegistry;
+    private final String apiPrefix;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient, MeterRegistry meterRegistry, String apiPrefix) {
         this.rest = rest;
+        this.webClient = webClient;
+        this.meterRegistry = meterRegistry;
+        this.apiPrefix = apiPrefix;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    @Nullable
+    protected static WebClient webClient(ObjectProvider<WebClient> webClientProvider, String baseUrl) {
+        WebClient sharedWebClient = webClientProvider.getIfAvailable();
+        if (sharedWebClient == null) {
+            return null;
+        }
+        return sharedWebClient.mutate()
+                .baseUrl(baseUrl)
+                .build();
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+    /**
+     * Блокирующий обмен строками NDJSON: тело запроса пишется построчно, строки ответа передаются в consumer по мере чтения.
+     * Ответ сервера с кодом ошибки пробрасывается как HttpStatusCodeException.
+     */
+    protected void exchangeLines(HttpMethod method, String path, long userId, List<String> lines, Consumer<String> responseLineConsumer) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            rest.execute(path, method, request -> {
+                request.getHeaders().setContentType(NDJSON);
+                request.getHeaders().setAccept(List.of(NDJSON, MediaType.APPLICATION_JSON));
+                request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                Writer writer = new OutputStreamWriter(request.getBody(), StandardCharsets.UTF_8);
+                for (String line : lines) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+                writer.flush();
+            }, response -> {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        responseLineConsumer.accept(line);
+                    }
+                }
+                sample.stop(clientTimer(method, path, String.valueOf(response.getRawStatusCode())));
+                return null;
+            });
+        } catch (HttpStatusCodeException e) {
+            sample.stop(clientTimer(method, path, String.valueOf(e.getRawStatusCode())));
+            throw e;
+        } catch (RestClientException e) {
+            sample.stop(clientTimer(method, path, "IO_ERROR"));
+            throw e;
+        }
+    }
+
+    /**
+     * Блокирующая пересылка потокового ответа сервера: статус и заголовки копируются в target,
+     * тело переливается в out через фиксированный буфер без накопления в памяти.
+     */
+    protected void forwardStream(HttpMethod method, String path, long userId, Map<String, Object> parameters,
+                                 HttpServletResponse target, OutputStream out) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            rest.execute(path, method, request -> {
+                request.getHeaders().setAccept(List.of(MediaType.ALL));
+                request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            }, response -> {
+                copyResponseHead(response.getRawStatusCode(), response.getHeaders(), target);
+                StreamUtils.copy(response.getBody(), out);
+                out.flush();
+                sample.stop(clientTimer(method, path, String.valueOf(response.getRawStatusCode())));
+                return null;
+            }, parameters);
+        } catch (HttpStatusCodeException e) {
+            sample.stop(clientTimer(method, path, String.valueOf(e.getRawStatusCode())));
+            copyResponseHead(e.getRawStatusCode(), e.getResponseHeaders(), target);
+            out.write(e.getResponseBodyAsByteArray());
+            out.flush();
+        } catch (RestClientException e) {
+            sample.stop(clientTimer(method, path, "IO_ERROR"));
+            throw e;
+        }
+    }
+
+    private static void copyResponseHead(int status, @Nullable HttpHeaders serverHeaders, HttpServletResponse target) {
+        target.setStatus(status);
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name)) {
+                    values.forEach(value -> target.addHeader(name, value));
+                }
+            });
+        }
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        Mono<ResponseEntity<Object>> response;
+        if (webClient != null) {
+            response = makeAndSendReactiveRequest(method, path, userId, parameters, body);
+        } else {
+            response = Mono.fromCallable(() -> makeAndSendBlockingRequest(method, path, userId, parameters, body));
+        }
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return response
+                    .doOnNext(serverResponse -> sample.stop(clientTimer(method, path, String.valueOf(serverResponse.getStatusCodeValue()))))
+                    .doOnError(e -> sample.stop(clientTimer(method, path, "IO_ERROR")));
+        });
+    }
+
+    private Timer clientTimer(HttpMethod method, String path, String status) {
+        int queryStart = path.indexOf('?');
+        String pathTemplate = apiPrefix + (queryStart < 0 ? path : path.substring(0, queryStart));
+        return Timer.builder(CLIENT_METRIC_NAME)
+                .tag("method", method.name())
+                .tag("path", pathTemplate)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private <T> ResponseEntity<Object> makeAndSendBlockingRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return prepareGatewayResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        return prepareGatewayResponse(shareitServerResponse.getStatusCode(), shareitServerResponse.getHeaders(),
+                shareitServerResponse.getBody());
+    }
+
+    private <T> Mono<ResponseEntity<Object>> makeAndSendReactiveRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body != null ? request.bodyValue(body) : request;
+        return requestWithBody.exchangeToMono(BaseClient::toGatewayResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -105,15 +266,24 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
+    private static Mono<ResponseEntity<Object>> toGatewayResponse(ClientResponse response) {
+        return response.toEntity(byte[].class)
+                .map(serverResponse -> prepareGatewayResponse(serverResponse.getStatusCode(), serverResponse.getHeaders(),
+                        serverResponse.getBody()));
+    }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    private static ResponseEntity<Object> prepareGatewayResponse(HttpStatus status, @Nullable HttpHeaders serverHeaders, @Nullable byte[] body) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status);
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name)) {
+                    responseBuilder.header(name, values.toArray(String[]::new));
+                }
+            });
+        }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+        if (body != null && body.length > 0) {
+            return responseBuilder.body(body);
         }
 
         return responseBuilder.build();
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.client.mode", havingValue = "reactive")
+public class ReactiveClientConfig {
+
+    @Bean
+    public WebClient shareItServerWebClient(WebClient.Builder builder,
+                                            @Value("${shareit-server.client.max-connections:200}") int maxConnections,
+                                            @Value("${shareit-server.client.pending-acquire-max-count:1000}") int pendingAcquireMaxCount,
+                                            @Value("${shareit-server.client.connect-timeout:2s}") Duration connectTimeout,
+                                            @Value("${shareit-server.client.response-timeout:10s}") Duration responseTimeout) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(responseTimeout);
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -1,33 +1,46 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchMode;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ObjectProvider<WebClient> webClientProvider, MeterRegistry meterRegistry) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                webClient(webClientProvider, serverUrl + API_PREFIX),
+                meterRegistry,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getAllByOwnerId(long ownerId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(long ownerId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -35,32 +48,55 @@ public class ItemClient extends BaseClient {
         return get("?from={from}&size={size}", ownerId, parameters);
     }
 
-    public ResponseEntity<Object> getById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getById(long userId, long itemId) {
+        return get("/{itemId}", userId, Map.of("itemId", itemId));
     }
 
-    public ResponseEntity<Object> create(long ownerId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> create(long ownerId, ItemDto itemDto) {
         return post("", ownerId, itemDto);
     }
 
-    public ResponseEntity<Object> update(long ownerId, ItemDto itemDto) {
-        return patch("/" + itemDto.getId(), ownerId, itemDto);
+    public void importItems(long ownerId, List<String> itemLines, Consumer<String> resultLineConsumer) {
+        exchangeLines(HttpMethod.POST, "/import", ownerId, itemLines, resultLineConsumer);
     }
 
-    public ResponseEntity<Object> searchItemsByText(String text, int from, int size) {
+    public Mono<ResponseEntity<Object>> update(long ownerId, ItemDto itemDto) {
+        return patch("/{itemId}", ownerId, Map.of("itemId", itemDto.getId()), itemDto);
+    }
+
+    public Mono<ResponseEntity<Object>> searchItemsByText(String text, ItemSearchMode mode, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
+                "mode", mode.name(),
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+        return get("/search?text={text}&mode={mode}&from={from}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> deleteById(long ownerId, long itemId) {
+        return delete("/{itemId}", ownerId, Map.of("itemId", itemId));
     }
 
-    public void deleteById(long ownerId, long itemId) {
-        delete("/" + itemId, ownerId);
+    public Mono<ResponseEntity<Object>> getComments(long itemId, int from, int size) {
+        Map<String, Object> parameters = Map.of(
+                "itemId", itemId,
+                "from", from,
+                "size", size
+        );
+        return get("/{itemId}/comments?from={from}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "itemId", itemId,
+                "from", from,
+                "to", to
+        );
+        return get("/{itemId}/availability?from={from}&to={to}", null, parameters);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+    public Mono<ResponseEntity<Object>> addComment(long userId, long itemId, CommentDto commentDto) {
+        return post("/{itemId}/comment", userId, Map.of("itemId", itemId), commentDto);
     }
 }
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,9 +14,17 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.common.ParameterPaginationService;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchMode;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/items")
@@ -24,12 +33,14 @@ import ru.practicum.shareit.item.dto.ItemDto;
 public class ItemController {
     private static final String REQUEST_HEADER = "X-Sharer-User-Id";
     private static final String ITEM_ID_PATH_VARIABLE = "itemId";
+    private static final String NDJSON = "application/x-ndjson";
     private final ItemClient itemClient;
     private final ItemValidationService itemValidationService;
+    private final ItemImportService itemImportService;
     private ParameterPaginationService parameterPaginationService;
 
     @GetMapping
-    public ResponseEntity<Object> findAllItems(@RequestHeader(REQUEST_HEADER) long ownerId, @RequestParam(required = false, defaultValue = "0") int from,
+    public Mono<ResponseEntity<Object>> findAllItems(@RequestHeader(REQUEST_HEADER) long ownerId, @RequestParam(required = false, defaultValue = "0") int from,
                                                @RequestParam(required = false, defaultValue = "10") int size) {
         log.info("Получен запрос к эндпоинту: {} /items?from={}&size={}", "GET", from, size);
         parameterPaginationService.validateRequestParameters(from, size);
@@ -37,21 +48,27 @@ public class ItemController {
     }
 
     @GetMapping(value = "/{" + ITEM_ID_PATH_VARIABLE + "}")
-    public ResponseEntity<Object> findItemByItemId(@RequestHeader(REQUEST_HEADER) long userId, @PathVariable(ITEM_ID_PATH_VARIABLE) long itemId) {
+    public Mono<ResponseEntity<Object>> findItemByItemId(@RequestHeader(REQUEST_HEADER) long userId, @PathVariable(ITEM_ID_PATH_VARIABLE) long itemId) {
         log.info("Получен запрос к эндпоинту: {} /items/{}", "GET", itemId);
         return itemClient.getById(userId, itemId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(REQUEST_HEADER) long ownerId, @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(REQUEST_HEADER) long ownerId, @RequestBody ItemDto itemDto) {
         log.info("Получен запрос к эндпоинту: {} {}", "POST", "/items");
         itemDto.setOwnerId(ownerId);
         itemValidationService.validateItemCreate(itemDto);
         return itemClient.create(ownerId, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = NDJSON, produces = NDJSON)
+    public StreamingResponseBody importItems(@RequestHeader(REQUEST_HEADER) long ownerId, HttpServletRequest request) throws IOException {
+        log.info("Получен запрос к эндпоинту: {} {}", "POST", "/items/import");
+        return itemImportService.importItems(ownerId, request.getInputStream());
+    }
+
     @PatchMapping(value = "/{" + ITEM_ID_PATH_VARIABLE + "}")
-    public ResponseEntity<Object> patchItem(@RequestHeader(REQUEST_HEADER) long ownerId, @PathVariable(ITEM_ID_PATH_VARIABLE) long itemId, @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> patchItem(@RequestHeader(REQUEST_HEADER) long ownerId, @PathVariable(ITEM_ID_PATH_VARIABLE) long itemId, @RequestBody ItemDto itemDto) {
         log.info("Получен запрос к эндпоинту: {} /items/{}", "PATCH", itemId);
         itemDto.setOwnerId(ownerId);
         itemDto.setId(itemId);
@@ -60,21 +77,41 @@ public class ItemController {
     }
 
     @GetMapping(value = "/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text, @RequestParam(required = false, defaultValue = "0") int from,
-                                              @RequestParam(required = false, defaultValue = "10") int size) {
-        log.info("Получен запрос к эндпоинту: {} /items/search?from={}&size={}", "GET", from, size);
+    public Mono<ResponseEntity<Object>> searchItems(@RequestParam String text, @RequestParam(required = false, defaultValue = "0") int from,
+                                              @RequestParam(required = false, defaultValue = "10") int size,
+                                              @RequestParam(required = false, defaultValue = "exact") String mode) {
+        log.info("Получен запрос к эндпоинту: {} /items/search?from={}&size={}&mode={}", "GET", from, size, mode);
         parameterPaginationService.validateRequestParameters(from, size);
-        return itemClient.searchItemsByText(text, from, size);
+        ItemSearchMode searchMode = ItemSearchMode.from(mode)
+                .orElseThrow(() -> new ValidationException("Неизвестный режим поиска: " + mode));
+        return itemClient.searchItemsByText(text, searchMode, from, size);
     }
 
     @DeleteMapping(value = "/{" + ITEM_ID_PATH_VARIABLE + "}")
-    public void removeItemById(@RequestHeader(REQUEST_HEADER) long ownerId, @PathVariable(ITEM_ID_PATH_VARIABLE) long itemId) {
+    public Mono<ResponseEntity<Object>> removeItemById(@RequestHeader(REQUEST_HEADER) long ownerId, @PathVariable(ITEM_ID_PATH_VARIABLE) long itemId) {
         log.info("Получен запрос к эндпоинту: {} /items/{}", "DELETE", itemId);
-        itemClient.deleteById(ownerId, itemId);
+        return itemClient.deleteById(ownerId, itemId);
+    }
+
+    @GetMapping(value = "/{" + ITEM_ID_PATH_VARIABLE + "}/comments")
+    public Mono<ResponseEntity<Object>> findComments(@PathVariable(ITEM_ID_PATH_VARIABLE) long itemId, @RequestParam(required = false, defaultValue = "0") int from,
+                                                     @RequestParam(required = false, defaultValue = "10") int size) {
+        log.info("Получен запрос к эндпоинту: {} /items/{}/comments?from={}&size={}", "GET", itemId, from, size);
+        parameterPaginationService.validateRequestParameters(from, size);
+        return itemClient.getComments(itemId, from, size);
+    }
+
+    @GetMapping(value = "/{" + ITEM_ID_PATH_VARIABLE + "}/availability")
+    public Mono<ResponseEntity<Object>> findAvailability(@PathVariable(ITEM_ID_PATH_VARIABLE) long itemId,
+                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос к эндпоинту: {} /items/{}/availability?from={}&to={}", "GET", itemId, from, to);
+        itemValidationService.validateAvailabilityPeriod(from, to);
+        return itemClient.getAvailability(itemId, from, to);
     }
 
     @PostMapping(value = "/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(REQUEST_HEADER) long userId, @PathVariable(ITEM_ID_PATH_VARIABLE) long itemId, @RequestBody CommentDto commentDto) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(REQUEST_HEADER) long userId, @PathVariable(ITEM_ID_PATH_VARIABLE) long itemId, @RequestBody CommentDto commentDto) {
         log.info("Получен запрос к эндпоинту: {} /items/{}/comment", "POST", itemId);
         return itemClient.addComment(userId, itemId, commentDto);
     }
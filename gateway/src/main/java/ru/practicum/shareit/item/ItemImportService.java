@@ -0,0 +1,144 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemImportResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковый импорт вещей через шлюз: каждая строка NDJSON проверяется ItemValidationService,
+ * корректные строки отправляются на сервер порциями ограниченного размера, результаты порции вместе с ошибками проверки
+ * возвращаются клиенту в порядке строк.
+ * Порции, а не один сквозной поток, нужны потому, что блокирующий клиент не читает ответ, пока не допишет запрос.
+ */
+@Component
+@Slf4j
+public class ItemImportService {
+    private static final byte[] LINE_SEPARATOR = "\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ItemClient itemClient;
+    private final ItemValidationService itemValidationService;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ItemImportService(ItemClient itemClient, ItemValidationService itemValidationService, ObjectMapper objectMapper,
+                             @Value("${shareit-server.items.import.chunk-size:500}") int chunkSize) {
+        this.itemClient = itemClient;
+        this.itemValidationService = itemValidationService;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+    }
+
+    public StreamingResponseBody importItems(long ownerId, InputStream body) {
+        return out -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            // результаты всех строк порции по порядку; результаты отправленных строк подставляются из ответа сервера
+            List<ItemImportResult> results = new ArrayList<>(chunkSize);
+            List<Integer> itemPositions = new ArrayList<>(chunkSize);
+            List<String> itemLines = new ArrayList<>(chunkSize);
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ItemImportResult result = ItemImportResult.builder().line(lineNumber).build();
+                try {
+                    ItemDto itemDto = objectMapper.readValue(line, ItemDto.class);
+                    itemDto.setOwnerId(ownerId);
+                    itemValidationService.validateItemCreate(itemDto);
+                    itemPositions.add(results.size());
+                    itemLines.add(objectMapper.writeValueAsString(itemDto));
+                } catch (JsonProcessingException e) {
+                    result.setError("Строка не является корректным JSON.");
+                } catch (ValidationException e) {
+                    result.setError(e.getMessage());
+                }
+                results.add(result);
+                if (results.size() == chunkSize) {
+                    sendChunk(ownerId, results, itemPositions, itemLines, out);
+                }
+            }
+            if (!results.isEmpty()) {
+                sendChunk(ownerId, results, itemPositions, itemLines, out);
+            }
+            out.flush();
+        };
+    }
+
+    private void sendChunk(long ownerId, List<ItemImportResult> results, List<Integer> itemPositions, List<String> itemLines,
+                           OutputStream out) throws IOException {
+        if (!itemLines.isEmpty()) {
+            try {
+                itemClient.importItems(ownerId, itemLines, resultLine -> {
+                    try {
+                        ItemImportResult serverResult = objectMapper.readValue(resultLine, ItemImportResult.class);
+                        // сервер нумерует строки внутри порции, клиенту возвращается номер строки исходного файла
+                        ItemImportResult result = results.get(itemPositions.get((int) serverResult.getLine() - 1));
+                        result.setId(serverResult.getId());
+                        result.setError(serverResult.getError());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (HttpStatusCodeException e) {
+                log.warn("Сервер отклонил порцию импорта вещей: {} {}", e.getRawStatusCode(), e.getResponseBodyAsString());
+                setChunkError(results, itemPositions, errorDescription(e));
+            } catch (RestClientException e) {
+                log.warn("Порция импорта вещей не доставлена на сервер: {}", e.getMessage());
+                setChunkError(results, itemPositions, "Сервер недоступен, вещь не сохранена.");
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        for (ItemImportResult result : results) {
+            write(out, result);
+        }
+        out.flush();
+        results.clear();
+        itemPositions.clear();
+        itemLines.clear();
+    }
+
+    private String errorDescription(HttpStatusCodeException e) {
+        try {
+            JsonNode error = objectMapper.readTree(e.getResponseBodyAsByteArray());
+            return error.path("description").asText(e.getStatusText());
+        } catch (IOException parseException) {
+            return e.getStatusText();
+        }
+    }
+
+    private void setChunkError(List<ItemImportResult> results, List<Integer> itemPositions, String error) {
+        for (Integer position : itemPositions) {
+            ItemImportResult result = results.get(position);
+            if (result.getId() == null) {
+                result.setError(error);
+            }
+        }
+    }
+
+    private void write(OutputStream out, ItemImportResult result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write(LINE_SEPARATOR);
+    }
+}
@@ -4,6 +4,8 @@ import org.springframework.stereotype.Component;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+
 @Component
 public class ItemValidationService {
     public void validateItemCreate(ItemDto itemDto) {
@@ -21,6 +23,12 @@ public class ItemValidationService {
         }
     }
 
+    public void validateAvailabilityPeriod(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Ошибка валидации. Начало периода должно быть раньше его окончания.");
+        }
+    }
+
     private void validateName(ItemDto itemDto) {
         String name = itemDto.getName();
         if (name == null || name.isBlank()) {
@@ -25,4 +25,5 @@ public class ItemDto {
     BookingOutputDto lastBooking;
     BookingOutputDto nextBooking;
     List<CommentDto> comments;
+    Long commentCount;
 }
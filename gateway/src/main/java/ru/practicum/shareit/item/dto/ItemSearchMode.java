@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.Optional;
+
+public enum ItemSearchMode {
+    EXACT,
+    FUZZY;
+
+    public static Optional<ItemSearchMode> from(String mode) {
+        for (ItemSearchMode searchMode : values()) {
+            if (searchMode.name().equalsIgnoreCase(mode)) {
+                return Optional.of(searchMode);
+            }
+        }
+        return Optional.empty();
+    }
+}
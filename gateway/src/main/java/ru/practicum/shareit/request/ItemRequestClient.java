@@ -1,12 +1,16 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 
 import java.util.Map;
@@ -16,28 +20,32 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ObjectProvider<WebClient> webClientProvider, MeterRegistry meterRegistry) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                webClient(webClientProvider, serverUrl + API_PREFIX),
+                meterRegistry,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> create(long userId, ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> create(long userId, ItemRequestDto itemRequestDto) {
         return post("", userId, itemRequestDto);
     }
 
-    public ResponseEntity<Object> getAllRequests(long userId) {
+    public Mono<ResponseEntity<Object>> getAllRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemRequestById(long userId, long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getItemRequestById(long userId, long requestId) {
+        return get("/{requestId}", userId, Map.of("requestId", requestId));
     }
 
-    public ResponseEntity<Object> getAllItemRequestsByOtherRequestors(long userId, int from, int size) {
+    public Mono<ResponseEntity<Object>> getAllItemRequestsByOtherRequestors(long userId, int from, int size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
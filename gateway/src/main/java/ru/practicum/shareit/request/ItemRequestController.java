@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.common.ParameterPaginationService;
 
 @RestController
@@ -24,26 +25,26 @@ public class ItemRequestController {
     private final ParameterPaginationService parameterPaginationService;
 
     @PostMapping
-    public ResponseEntity<Object> createItemRequest(@RequestHeader(REQUEST_HEADER) long userId, @RequestBody ItemRequestDto itemRequestDto) {
+    public Mono<ResponseEntity<Object>> createItemRequest(@RequestHeader(REQUEST_HEADER) long userId, @RequestBody ItemRequestDto itemRequestDto) {
         log.info("Получен запрос к эндпоинту: {} {}", "POST", "/requests");
         itemRequestValidationService.validateItemRequestCreate(itemRequestDto);
         return itemRequestClient.create(userId, itemRequestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemRequests(@RequestHeader(REQUEST_HEADER) long userId) {
+    public Mono<ResponseEntity<Object>> getAllItemRequests(@RequestHeader(REQUEST_HEADER) long userId) {
         log.info("Получен запрос к эндпоинту: {} {}", "GET", "/requests");
         return itemRequestClient.getAllRequests(userId);
     }
 
     @GetMapping(value = "/{requestId}")
-    public ResponseEntity<Object> getItemRequestById(@RequestHeader(REQUEST_HEADER) long userId, @PathVariable long requestId) {
+    public Mono<ResponseEntity<Object>> getItemRequestById(@RequestHeader(REQUEST_HEADER) long userId, @PathVariable long requestId) {
         log.info("Получен запрос к эндпоинту: {} /requests/{}", "GET", requestId);
         return itemRequestClient.getItemRequestById(userId, requestId);
     }
 
     @GetMapping(value = "/all")
-    public ResponseEntity<Object> getAllItemRequestsByOtherRequestors(@RequestHeader(REQUEST_HEADER) long userId, @RequestParam(required = false, defaultValue = "0") int from,
+    public Mono<ResponseEntity<Object>> getAllItemRequestsByOtherRequestors(@RequestHeader(REQUEST_HEADER) long userId, @RequestParam(required = false, defaultValue = "0") int from,
                                                                       @RequestParam(required = false, defaultValue = "10") int size) {
         log.info("Получен запрос к эндпоинту: {} /requests/all/?from={}&size={}", "GET", from, size);
         parameterPaginationService.validateRequestParameters(from, size);
@@ -1,45 +1,55 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.util.Map;
+
 @Service
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ObjectProvider<WebClient> webClientProvider, MeterRegistry meterRegistry) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
                         .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                webClient(webClientProvider, serverUrl + API_PREFIX),
+                meterRegistry,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getAll() {
+    public Mono<ResponseEntity<Object>> getAll() {
         return get("");
     }
 
-    public ResponseEntity<Object> getById(long userId) {
-        return get("/" + userId, userId);
+    public Mono<ResponseEntity<Object>> getById(long userId) {
+        return get("/{userId}", userId, Map.of("userId", userId));
     }
 
-    public ResponseEntity<Object> create(UserDto userDto) {
+    public Mono<ResponseEntity<Object>> create(UserDto userDto) {
         return post("", userDto);
     }
 
-    public ResponseEntity<Object> update(UserDto userDto) {
-        return patch("/" + userDto.getId(), userDto);
+    public Mono<ResponseEntity<Object>> update(UserDto userDto) {
+        return patch("/{userId}", null, Map.of("userId", userDto.getId()), userDto);
     }
 
-    public ResponseEntity<Object> deleteById(long userId) {
-        return delete("/" + userId, userId);
+    public Mono<ResponseEntity<Object>> deleteById(long userId) {
+        return delete("/{userId}", userId, Map.of("userId", userId));
     }
 }
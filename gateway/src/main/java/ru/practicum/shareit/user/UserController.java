@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
 @RestController
 @AllArgsConstructor
@@ -24,27 +25,27 @@ public class UserController {
     private final UserValidationService userValidationService;
 
     @GetMapping
-    public ResponseEntity<Object> findAllUsers() {
+    public Mono<ResponseEntity<Object>> findAllUsers() {
         log.info("Получен запрос к эндпоинту: {} {}", "GET", "/users");
         return userClient.getAll();
     }
 
     @GetMapping(value = "/{" + USER_ID_PATH_VARIABLE + "}")
-    public ResponseEntity<Object> findUserById(@PathVariable(USER_ID_PATH_VARIABLE) long userId) {
+    public Mono<ResponseEntity<Object>> findUserById(@PathVariable(USER_ID_PATH_VARIABLE) long userId) {
         log.info("Получен запрос к эндпоинту: {} /users/{}", "GET", userId);
         return userClient.getById(userId);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity<Object> createUser(@RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@RequestBody UserDto userDto) {
         log.info("Получен запрос к эндпоинту: {} {}", "POST", "/users");
         userValidationService.validateUserCreate(userDto);
         return userClient.create(userDto);
     }
 
     @PatchMapping(value = "/{" + USER_ID_PATH_VARIABLE + "}")
-    public ResponseEntity<Object> patchUser(@PathVariable(USER_ID_PATH_VARIABLE) long userId, @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> patchUser(@PathVariable(USER_ID_PATH_VARIABLE) long userId, @RequestBody UserDto userDto) {
         log.info("Получен запрос к эндпоинту: {} /users/{}", "PATCH", userId);
         userValidationService.validateUserUpdate(userDto);
         userDto.setId(userId);
@@ -52,8 +53,8 @@ public class UserController {
     }
 
     @DeleteMapping(value = "/{" + USER_ID_PATH_VARIABLE + "}")
-    public void removeUserById(@PathVariable(USER_ID_PATH_VARIABLE) long userId) {
+    public Mono<ResponseEntity<Object>> removeUserById(@PathVariable(USER_ID_PATH_VARIABLE) long userId) {
         log.info("Получен запрос к эндпоинту: {} /users/{}", "DELETE", userId);
-        userClient.deleteById(userId);
+        return userClient.deleteById(userId);
     }
 }
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.booking;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BookingClientTest {
+    private static final long BOOKER_ID = 1;
+    private static final long OWNER_ID = 2;
+    private static final String BOOKING = "{\"id\":7,\"bookerId\":" + BOOKER_ID + ",\"booker\":{\"id\":" + BOOKER_ID + "}," +
+            "\"item\":{\"id\":5,\"ownerId\":" + OWNER_ID + "},\"status\":\"%s\"}";
+
+    private static final Map<String, AtomicInteger> summaryRequests = new ConcurrentHashMap<>();
+    private static final HttpServer server = startServer();
+
+    @Autowired
+    private BookingClient bookingClient;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", () -> "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void bookingResetsSummaryOfItemOwner() {
+        ResponseEntity<Object> first = bookingClient.getBookingSummaryByOwnerId(OWNER_ID).block();
+        ResponseEntity<Object> cached = bookingClient.getBookingSummaryByOwnerId(OWNER_ID).block();
+
+        assertThat(first.getHeaders().getFirst("X-Sql-Statements")).isEqualTo("1");
+        assertThat(cached.getHeaders().containsKey("X-Sql-Statements")).isFalse();
+        assertThat(cached.getStatusCode()).isEqualTo(first.getStatusCode());
+        assertThat(cached.getHeaders().getContentType()).isEqualTo(first.getHeaders().getContentType());
+        assertThat(body(cached)).isEqualTo(body(first));
+
+        bookingClient.bookItem(BOOKER_ID, BookingInputDto.builder()
+                .itemId(5L)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .build()).block();
+
+        assertThat(body(bookingClient.getBookingSummaryByOwnerId(OWNER_ID).block())).isNotEqualTo(body(first));
+    }
+
+    @Test
+    void approvalResetsSummaryOfBooker() {
+        ResponseEntity<Object> first = bookingClient.getBookingSummaryByUserId(BOOKER_ID).block();
+        assertThat(body(bookingClient.getBookingSummaryByUserId(BOOKER_ID).block())).isEqualTo(body(first));
+
+        bookingClient.approveOrRejectBooking(7, OWNER_ID, true).block();
+
+        assertThat(body(bookingClient.getBookingSummaryByUserId(BOOKER_ID).block())).isNotEqualTo(body(first));
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static HttpServer startServer() {
+        try {
+            HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            httpServer.createContext("/bookings", BookingClientTest::handle);
+            httpServer.start();
+            return httpServer;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String body;
+        if (path.endsWith("/summary")) {
+            String key = path + ":" + exchange.getRequestHeaders().getFirst("X-Sharer-User-Id");
+            int requests = summaryRequests.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            body = "{\"total\":" + requests + "}";
+            exchange.getResponseHeaders().add("X-Sql-Statements", "1");
+        } else if ("PATCH".equals(exchange.getRequestMethod())) {
+            body = String.format(BOOKING, "APPROVED");
+        } else {
+            body = String.format(BOOKING, "WAITING");
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
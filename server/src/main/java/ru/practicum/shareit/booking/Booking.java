@@ -15,12 +15,15 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 @Entity
@@ -33,18 +36,26 @@ import java.time.LocalDateTime;
 @Setter
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_id_seq")
+    @SequenceGenerator(name = "bookings_id_seq", sequenceName = "bookings_id_seq", allocationSize = 50)
     Long id;
     @Column(name = "start_date")
     LocalDateTime start;
     @Column(name = "end_date")
     LocalDateTime end;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id")
     Item item;
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id")
     User booker;
+    /**
+     * Копия владельца вещи: по ней и началу идет индекс, из которого страницы бронирований владельца читаются без сортировки.
+     */
+    @Column(name = "item_owner_id")
+    Long itemOwnerId;
     @Enumerated(EnumType.STRING)
     Status status;
+    @Version
+    Long version;
 }
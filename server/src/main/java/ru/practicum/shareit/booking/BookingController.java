@@ -2,6 +2,8 @@ package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,10 +13,16 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.enums.ExportFormat;
+import ru.practicum.shareit.booking.service.BookingExportService;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -24,7 +32,9 @@ import java.util.List;
 public class BookingController {
     private static final String REQUEST_HEADER = "X-Sharer-User-Id";
     private static final String BOOKING_ID_PATH_VARIABLE = "bookingId";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingService;
+    private final BookingExportService bookingExportService;
 
     @PostMapping
     public BookingOutputDto create(@RequestHeader(REQUEST_HEADER) long userId, @RequestBody BookingInputDto bookingDto) {
@@ -32,6 +42,12 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingDto);
     }
 
+    @PostMapping(value = "/batch")
+    public List<BookingOutputDto> createBatch(@RequestHeader(REQUEST_HEADER) long userId, @RequestBody List<BookingInputDto> bookingDtos) {
+        log.info("Получен запрос к эндпоинту: {} /bookings/batch, бронирований: {}", "POST", bookingDtos.size());
+        return bookingService.createBookings(userId, bookingDtos);
+    }
+
     @PatchMapping(value = "/{" + BOOKING_ID_PATH_VARIABLE + "}")
     public BookingOutputDto approveOrRejectBooking(@PathVariable(value = BOOKING_ID_PATH_VARIABLE) long bookingId, @RequestHeader(REQUEST_HEADER) long ownerId, @RequestParam boolean approved) {
         log.info("Получен запрос к эндпоинту: {} /bookings/{}", "PATCH", bookingId);
@@ -47,16 +63,66 @@ public class BookingController {
     @GetMapping
     public List<BookingOutputDto> getAllBookingsByUserId(@RequestHeader(REQUEST_HEADER) long userId, @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
                                                          @RequestParam(required = false, defaultValue = "0") int from,
-                                                         @RequestParam(required = false, defaultValue = "10") int size) {
-        log.info("Получен запрос к эндпоинту: {} /bookings?from={}&size={}", "GET", from, size);
-        return bookingService.getAllBookingsByUserId(userId, stateParam, from, size);
+                                                         @RequestParam(required = false, defaultValue = "10") int size,
+                                                         @RequestParam(required = false) String cursor, HttpServletResponse response) {
+        log.info("Получен запрос к эндпоинту: {} /bookings?from={}&size={}&cursor={}", "GET", from, size, cursor);
+        if (cursor == null) {
+            return bookingService.getAllBookingsByUserId(userId, stateParam, from, size);
+        }
+        List<BookingOutputDto> bookings = bookingService.getAllBookingsByUserId(userId, stateParam, BookingCursor.decode(cursor), size);
+        setNextCursor(response, bookings, size);
+        return bookings;
     }
 
     @GetMapping(value = "/owner")
     public List<BookingOutputDto> getAllBookingsByOwner(@RequestHeader(REQUEST_HEADER) long ownerId, @RequestParam(value = "state", defaultValue = "ALL") String stateParam,
                                                         @RequestParam(required = false, defaultValue = "0") int from,
-                                                        @RequestParam(required = false, defaultValue = "10") int size) {
-        log.info("Получен запрос к эндпоинту: {} /bookings/owner?from={}&size={}", "GET", from, size);
-        return bookingService.getAllBookingsByOwnerId(ownerId, stateParam, from, size);
+                                                        @RequestParam(required = false, defaultValue = "10") int size,
+                                                        @RequestParam(required = false) String cursor, HttpServletResponse response) {
+        log.info("Получен запрос к эндпоинту: {} /bookings/owner?from={}&size={}&cursor={}", "GET", from, size, cursor);
+        if (cursor == null) {
+            return bookingService.getAllBookingsByOwnerId(ownerId, stateParam, from, size);
+        }
+        List<BookingOutputDto> bookings = bookingService.getAllBookingsByOwnerId(ownerId, stateParam, BookingCursor.decode(cursor), size);
+        setNextCursor(response, bookings, size);
+        return bookings;
+    }
+
+    @GetMapping(value = "/summary")
+    public BookingSummaryDto getBookingSummaryByUserId(@RequestHeader(REQUEST_HEADER) long userId) {
+        log.info("Получен запрос к эндпоинту: {} /bookings/summary", "GET");
+        return bookingService.getBookingSummaryByUserId(userId);
+    }
+
+    @GetMapping(value = "/owner/summary")
+    public BookingSummaryDto getBookingSummaryByOwner(@RequestHeader(REQUEST_HEADER) long ownerId) {
+        log.info("Получен запрос к эндпоинту: {} /bookings/owner/summary", "GET");
+        return bookingService.getBookingSummaryByOwnerId(ownerId);
+    }
+
+    @GetMapping(value = "/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByUserId(@RequestHeader(REQUEST_HEADER) long userId,
+                                                                        @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("Получен запрос к эндпоинту: {} /bookings/export?format={}", "GET", format);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .body(bookingExportService.exportByBookerId(userId, exportFormat));
+    }
+
+    @GetMapping(value = "/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(@RequestHeader(REQUEST_HEADER) long ownerId,
+                                                                       @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("Получен запрос к эндпоинту: {} /bookings/owner/export?format={}", "GET", format);
+        ExportFormat exportFormat = ExportFormat.from(format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getMediaType()))
+                .body(bookingExportService.exportByOwnerId(ownerId, exportFormat));
+    }
+
+    private void setNextCursor(HttpServletResponse response, List<BookingOutputDto> bookings, int size) {
+        if (bookings.size() == size) {
+            response.setHeader(NEXT_CURSOR_HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
     }
 }
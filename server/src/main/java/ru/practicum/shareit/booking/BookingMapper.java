@@ -27,6 +27,7 @@ public class BookingMapper {
                 .end(bookingDto.getEnd())
                 .booker(user)
                 .item(item)
+                .itemOwnerId(item.getOwnerId())
                 .build();
     }
 }
@@ -1,40 +1,155 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.enums.Status;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String EXPORT_FETCH_SIZE = "500";
+    String BOOKING_DTO = "SELECT new ru.practicum.shareit.booking.dto.BookingOutputDto(b.id, b.start, b.end, b.status, " +
+            "i.id, i.name, i.description, i.available, i.ownerId, i.requestId, u.id, u.name, u.email) " +
+            "FROM Booking b JOIN b.item i JOIN b.booker u ";
+    String NEWEST_FIRST = " ORDER BY b.start DESC, b.id DESC";
+    // первое условие ограничивает диапазон индекса по началу, OR лишь отсекает строки с тем же началом
+    String AFTER_CURSOR = " AND b.start <= :cursorStart AND (b.start < :cursorStart OR b.id < :cursorId)" + NEWEST_FIRST;
+    String BOOKING_SUMMARY = "SELECT new ru.practicum.shareit.booking.dto.BookingSummaryDto(COUNT(b), " +
+            "COALESCE(SUM(CASE WHEN b.start < :now AND b.end > :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.start < :now AND b.end < :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.start > :now AND b.end > :now THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.status = ru.practicum.shareit.booking.enums.Status.WAITING THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN b.status = ru.practicum.shareit.booking.enums.Status.REJECTED THEN 1 ELSE 0 END), 0)) " +
+            "FROM Booking b ";
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     Booking findBookingById(long bookingId);
 
-    List<Booking> findAllByBookerId(long bookerId, PageRequest pageRequest);
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId AND b.status = :expectedStatus AND b.itemOwnerId = :ownerId")
+    int updateStatus(@Param("bookingId") long bookingId, @Param("ownerId") long ownerId, @Param("expectedStatus") Status expectedStatus,
+                     @Param("status") Status status);
 
-    List<Booking> findAllByBookerIdAndStatus(long bookerId, Status status, PageRequest pageRequest);
+    @Query(BOOKING_DTO + "WHERE u.id = :bookerId" + NEWEST_FIRST)
+    List<BookingOutputDto> findAllByBookerId(@Param("bookerId") long bookerId, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartGreaterThanAndEndGreaterThan(long bookerId, LocalDateTime localDateTime1, LocalDateTime localDateTime2, PageRequest pageRequest);
+    @Query(BOOKING_DTO + "WHERE u.id = :bookerId AND b.status = :status" + NEWEST_FIRST)
+    List<BookingOutputDto> findAllByBookerIdAndStatus(@Param("bookerId") long bookerId, @Param("status") Status status, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartLessThanAndEndLessThan(long bookerId, LocalDateTime localDateTime1, LocalDateTime localDateTime2, PageRequest pageRequest);
+    @Query(BOOKING_DTO + "WHERE u.id = :bookerId AND b.start > :now AND b.end > :now" + NEWEST_FIRST)
+    List<BookingOutputDto> findFutureByBookerId(@Param("bookerId") long bookerId, @Param("now") LocalDateTime now, Pageable pageable);
 
-    List<Booking> findAllByBookerIdAndStartLessThanAndEndGreaterThan(long bookerId, LocalDateTime localDateTime1, LocalDateTime localDateTime2, PageRequest pageRequest);
+    @Query(BOOKING_DTO + "WHERE u.id = :bookerId AND b.start < :now AND b.end < :now" + NEWEST_FIRST)
+    List<BookingOutputDto> findPastByBookerId(@Param("bookerId") long bookerId, @Param("now") LocalDateTime now, Pageable pageable);
 
-    List<Booking> findAllByItem_OwnerId(long ownerId, PageRequest pageRequest);
+    @Query(BOOKING_DTO + "WHERE u.id = :bookerId AND b.start < :now AND b.end > :now" + NEWEST_FIRST)
+    List<BookingOutputDto> findCurrentByBookerId(@Param("bookerId") long bookerId, @Param("now") LocalDateTime now, Pageable pageable);
 
-    List<Booking> findAllByItem_OwnerIdAndStatus(long ownerId, Status status, PageRequest pageRequest);
+    @Query(BOOKING_DTO + "WHERE u.id = :bookerId" + AFTER_CURSOR)
+    List<BookingOutputDto> findAllByBookerIdAfterCursor(@Param("bookerId") long bookerId, @Param("cursorStart") LocalDateTime cursorStart,
+                                                        @Param("cursorId") long cursorId, Pageable pageable);
 
-    List<Booking> findAllByItem_OwnerIdAndStartGreaterThanAndEndGreaterThan(long ownerId, LocalDateTime localDateTime1, LocalDateTime localDateTime2, PageRequest pageRequest);
+    @Query(BOOKING_DTO + "WHERE u.id = :bookerId AND b.status = :status" + AFTER_CURSOR)
+    List<BookingOutputDto> findAllByBookerIdAndStatusAfterCursor(@Param("bookerId") long bookerId, @Param("status") Status status, @Param("cursorStart") LocalDateTime cursorStart,
+                                                                 @Param("cursorId") long cursorId, Pageable pageable);
 
-    List<Booking> findAllByItem_OwnerIdAndStartLessThanAndEndLessThan(long ownerId, LocalDateTime localDateTime1, LocalDateTime localDateTime2, PageRequest pageRequest);
+    @Query(BOOKING_DTO + "WHERE u.id = :bookerId AND b.start > :now AND b.end > :now" + AFTER_CURSOR)
+    List<BookingOutputDto> findFutureByBookerIdAfterCursor(@Param("bookerId") long bookerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart,
+                                                           @Param("cursorId") long cursorId, Pageable pageable);
 
-    List<Booking> findAllByItem_OwnerIdAndStartLessThanAndEndGreaterThan(long ownerId, LocalDateTime localDateTime1, LocalDateTime localDateTime2, PageRequest pageRequest);
+    @Query(BOOKING_DTO + "WHERE u.id = :bookerId AND b.start < :now AND b.end < :now" + AFTER_CURSOR)
+    List<BookingOutputDto> findPastByBookerIdAfterCursor(@Param("bookerId") long bookerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart,
+                                                         @Param("cursorId") long cursorId, Pageable pageable);
 
-    Booking findFirstBookingByItem_IdAndStatusAndStartAfterOrderByStartAsc(long itemId, Status status, LocalDateTime localDateTime);
+    @Query(BOOKING_DTO + "WHERE u.id = :bookerId AND b.start < :now AND b.end > :now" + AFTER_CURSOR)
+    List<BookingOutputDto> findCurrentByBookerIdAfterCursor(@Param("bookerId") long bookerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart,
+                                                            @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query("SELECT b.start, b.end FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.start < :to AND b.end > :from ORDER BY b.start")
+    List<Object[]> findPeriodsByItemIdBetween(@Param("itemId") long itemId, @Param("statuses") Collection<Status> statuses,
+                                              @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query(BOOKING_SUMMARY + "WHERE b.booker.id = :bookerId")
+    BookingSummaryDto getSummaryByBookerId(@Param("bookerId") long bookerId, @Param("now") LocalDateTime now);
+
+    @Query(BOOKING_SUMMARY + "WHERE b.itemOwnerId = :ownerId")
+    BookingSummaryDto getSummaryByItemOwnerId(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now);
+
+    @Query(BOOKING_DTO + "WHERE b.itemOwnerId = :ownerId" + NEWEST_FIRST)
+    List<BookingOutputDto> findAllByItemOwnerId(@Param("ownerId") long ownerId, Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.itemOwnerId = :ownerId AND b.status = :status" + NEWEST_FIRST)
+    List<BookingOutputDto> findAllByItemOwnerIdAndStatus(@Param("ownerId") long ownerId, @Param("status") Status status, Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.itemOwnerId = :ownerId AND b.start > :now AND b.end > :now" + NEWEST_FIRST)
+    List<BookingOutputDto> findFutureByItemOwnerId(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.itemOwnerId = :ownerId AND b.start < :now AND b.end < :now" + NEWEST_FIRST)
+    List<BookingOutputDto> findPastByItemOwnerId(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.itemOwnerId = :ownerId AND b.start < :now AND b.end > :now" + NEWEST_FIRST)
+    List<BookingOutputDto> findCurrentByItemOwnerId(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.itemOwnerId = :ownerId" + AFTER_CURSOR)
+    List<BookingOutputDto> findAllByItemOwnerIdAfterCursor(@Param("ownerId") long ownerId, @Param("cursorStart") LocalDateTime cursorStart,
+                                                           @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.itemOwnerId = :ownerId AND b.status = :status" + AFTER_CURSOR)
+    List<BookingOutputDto> findAllByItemOwnerIdAndStatusAfterCursor(@Param("ownerId") long ownerId, @Param("status") Status status, @Param("cursorStart") LocalDateTime cursorStart,
+                                                                    @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.itemOwnerId = :ownerId AND b.start > :now AND b.end > :now" + AFTER_CURSOR)
+    List<BookingOutputDto> findFutureByItemOwnerIdAfterCursor(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart,
+                                                              @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.itemOwnerId = :ownerId AND b.start < :now AND b.end < :now" + AFTER_CURSOR)
+    List<BookingOutputDto> findPastByItemOwnerIdAfterCursor(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart,
+                                                            @Param("cursorId") long cursorId, Pageable pageable);
+
+    @Query(BOOKING_DTO + "WHERE b.itemOwnerId = :ownerId AND b.start < :now AND b.end > :now" + AFTER_CURSOR)
+    List<BookingOutputDto> findCurrentByItemOwnerIdAfterCursor(@Param("ownerId") long ownerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart,
+                                                               @Param("cursorId") long cursorId, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = EXPORT_FETCH_SIZE), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.booker.id = :bookerId ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamAllByBookerId(@Param("bookerId") long bookerId);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = EXPORT_FETCH_SIZE), @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.itemOwnerId = :ownerId ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamAllByItemOwnerId(@Param("ownerId") long ownerId);
+
+    List<Booking> findAllByItem_IdAndStatusInAndEndAfter(long itemId, Collection<Status> statuses, LocalDateTime localDateTime);
 
     Booking findFirstByItem_idAndBooker_IdAndEndBefore(long itemId, long bookerId, LocalDateTime localDateTime);
 
-    Booking findFirstBookingByItem_IdAndStatusAndStartBeforeOrderByEndDesc(long itemId, Status status, LocalDateTime localDateTime);
+    @Query(value = "SELECT id FROM (" +
+            "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date DESC, b.id DESC) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.status = :status AND b.start_date < :now) AS last_bookings " +
+            "WHERE rn = 1 " +
+            "UNION ALL " +
+            "SELECT id FROM (" +
+            "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date ASC, b.id ASC) AS rn " +
+            "FROM bookings b WHERE b.item_id IN (:itemIds) AND b.status = :status AND b.start_date > :now) AS next_bookings " +
+            "WHERE rn = 1", nativeQuery = true)
+    List<Number> findLastAndNextBookingIdsByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("status") String status, @Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id IN :bookingIds")
+    List<Booking> findAllWithItemAndBookerByIdIn(@Param("bookingIds") Collection<Long> bookingIds);
 }
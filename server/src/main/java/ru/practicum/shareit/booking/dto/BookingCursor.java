@@ -0,0 +1,50 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.exception.InvalidFieldException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@AllArgsConstructor
+@Getter
+public class BookingCursor {
+    private static final String SEPARATOR = "|";
+    // позиция перед самым поздним возможным бронированием: с нее начинается первая страница
+    private static final BookingCursor FIRST_PAGE = new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    LocalDateTime start;
+    long id;
+
+    public static BookingCursor of(BookingOutputDto booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    /**
+     * Пустой курсор означает первую страницу, которая выбирается тем же запросом по ключу, что и следующие.
+     */
+    public static BookingCursor decode(String cursor) {
+        if (cursor.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(decoded.substring(0, separatorIndex)),
+                    Long.parseLong(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new InvalidFieldException("Некорректное значение параметра cursor.");
+        }
+    }
+
+    public String encode() {
+        String raw = start + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
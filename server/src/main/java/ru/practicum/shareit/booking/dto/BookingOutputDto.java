@@ -25,4 +25,24 @@ public class BookingOutputDto {
     UserDto booker;
     Long bookerId;
     Status status;
+
+    /**
+     * Конструктор для JPQL-проекций: вещь и автор бронирования собираются из колонок одного запроса.
+     */
+    public BookingOutputDto(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                            Long itemId, String itemName, String itemDescription, Boolean itemAvailable, Long itemOwnerId, Long itemRequestId,
+                            Long bookerId, String bookerName, String bookerEmail) {
+        this(id, start, end,
+                ItemDto.builder()
+                        .id(itemId)
+                        .name(itemName)
+                        .description(itemDescription)
+                        .available(itemAvailable)
+                        .ownerId(itemOwnerId)
+                        .requestId(itemRequestId)
+                        .build(),
+                new UserDto(bookerId, bookerName, bookerEmail),
+                bookerId,
+                status);
+    }
 }
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Число бронирований в каждом из состояний, по которым фильтруются списки /bookings и /bookings/owner.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class BookingSummaryDto {
+    long all;
+    long current;
+    long past;
+    long future;
+    long waiting;
+    long rejected;
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.enums;
+
+import ru.practicum.shareit.exception.InvalidFieldException;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String mediaType;
+
+    ExportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public static ExportFormat from(String format) {
+        for (ExportFormat exportFormat : values()) {
+            if (exportFormat.name().equalsIgnoreCase(format)) {
+                return exportFormat;
+            }
+        }
+        throw new InvalidFieldException("Неизвестный формат выгрузки: " + format);
+    }
+}
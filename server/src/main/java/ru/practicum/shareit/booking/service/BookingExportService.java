@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.ExportFormat;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка всей истории бронирований пользователя в NDJSON или CSV.
+ * Строки читаются курсором в read-only транзакции и пишутся в ответ по одной, контекст персистентности
+ * периодически очищается, поэтому расход памяти не зависит от числа бронирований.
+ */
+@Service
+@Slf4j
+public class BookingExportService {
+    private static final int CLEAR_INTERVAL = Integer.parseInt(BookingRepository.EXPORT_FETCH_SIZE);
+    private static final String CSV_HEADER = "id,start,end,status,item_id,item_name,owner_id,booker_id,booker_name";
+
+    private final BookingRepository bookingRepository;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public BookingExportService(BookingRepository bookingRepository, UserService userService, ObjectMapper objectMapper,
+                                EntityManager entityManager, PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public StreamingResponseBody exportByBookerId(long bookerId, ExportFormat format) {
+        userService.getById(bookerId);
+        return export(() -> bookingRepository.streamAllByBookerId(bookerId), format);
+    }
+
+    public StreamingResponseBody exportByOwnerId(long ownerId, ExportFormat format) {
+        userService.getById(ownerId);
+        return export(() -> bookingRepository.streamAllByItemOwnerId(ownerId), format);
+    }
+
+    private StreamingResponseBody export(Supplier<Stream<Booking>> query, ExportFormat format) {
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            try {
+                Long exported = transactionTemplate.execute(status -> {
+                    try (Stream<Booking> bookings = query.get()) {
+                        return write(bookings.iterator(), format, writer);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                log.info("Выгружено бронирований: {}", exported);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+        };
+    }
+
+    private long write(Iterator<Booking> bookings, ExportFormat format, Writer writer) throws IOException {
+        if (format == ExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long count = 0;
+        while (bookings.hasNext()) {
+            Booking booking = bookings.next();
+            writer.write(format == ExportFormat.CSV ? toCsv(booking) : objectMapper.writeValueAsString(BookingMapper.toBookingDto(booking)));
+            writer.write('\n');
+            if (++count % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        }
+        return count;
+    }
+
+    private static String toCsv(Booking booking) {
+        return String.join(",",
+                String.valueOf(booking.getId()),
+                String.valueOf(booking.getStart()),
+                String.valueOf(booking.getEnd()),
+                String.valueOf(booking.getStatus()),
+                String.valueOf(booking.getItem().getId()),
+                csvField(booking.getItem().getName()),
+                String.valueOf(booking.getItem().getOwnerId()),
+                String.valueOf(booking.getBooker().getId()),
+                csvField(booking.getBooker().getName()));
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
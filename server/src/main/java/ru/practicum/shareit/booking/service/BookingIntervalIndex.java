@@ -0,0 +1,148 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.exception.InvalidFieldException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Проверка пересечения бронирований по линиям занятости вещей. Сохранение идет под блокировкой полосы id вещи,
+ * а сами линии — вытесняемый кэш: вытесненная линия перечитывается из базы, где уже есть все сохраненные бронирования.
+ * Бронирования, удаленные каскадом в базе, остаются в линии до вытеснения, поэтому перед отказом линия перечитывается.
+ */
+@Component
+public class BookingIntervalIndex {
+    private static final List<Status> BLOCKING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final int LOCK_STRIPES = 1024;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemBookingTimeline> timelines;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    public BookingIntervalIndex(BookingRepository bookingRepository, MeterRegistry meterRegistry,
+                                @Value("${shareit.cache.timelines.maximum-size:10000}") long maximumSize,
+                                @Value("${shareit.cache.timelines.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.bookingRepository = bookingRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, timelines, "timelines");
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public Booking saveIfFree(Booking booking) {
+        long itemId = booking.getItem().getId();
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        synchronized (locks[stripe(itemId)]) {
+            ItemBookingTimeline timeline = getTimeline(itemId);
+            if (timeline.overlaps(start, end)) {
+                timeline = reloadTimeline(itemId);
+            }
+            if (timeline.overlaps(start, end)) {
+                LocalDateTime nextFreeSlot = timeline.findNextFreeSlot(start, Duration.between(start, end));
+                throw new InvalidFieldException("Вещь с id = " + itemId + " уже забронирована на эти даты. " +
+                        "Ближайшее свободное время начала: " + nextFreeSlot + ".");
+            }
+            Booking savedBooking = bookingRepository.save(booking);
+            timeline.add(savedBooking);
+            return savedBooking;
+        }
+    }
+
+    public List<Booking> saveAllIfFree(List<Booking> bookings) {
+        List<Integer> stripes = bookings.stream()
+                .map(booking -> stripe(booking.getItem().getId()))
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        return saveAllLocked(bookings, stripes, 0);
+    }
+
+    public void update(Booking booking) {
+        long itemId = booking.getItem().getId();
+        synchronized (locks[stripe(itemId)]) {
+            ItemBookingTimeline timeline = timelines.getIfPresent(itemId);
+            if (timeline == null) {
+                return;
+            }
+            if (BLOCKING_STATUSES.contains(booking.getStatus())) {
+                timeline.add(booking);
+            } else {
+                timeline.remove(booking);
+            }
+        }
+    }
+
+    private List<Booking> saveAllLocked(List<Booking> bookings, List<Integer> stripes, int lockIndex) {
+        if (lockIndex < stripes.size()) {
+            synchronized (locks[stripes.get(lockIndex)]) {
+                return saveAllLocked(bookings, stripes, lockIndex + 1);
+            }
+        }
+
+        Map<Long, List<Booking>> acceptedByItem = new HashMap<>();
+        Set<Long> reloadedItemIds = new HashSet<>();
+        for (Booking booking : bookings) {
+            long itemId = booking.getItem().getId();
+            LocalDateTime start = booking.getStart();
+            LocalDateTime end = booking.getEnd();
+            List<Booking> accepted = acceptedByItem.computeIfAbsent(itemId, id -> new ArrayList<>());
+            boolean overlapsBatch = accepted.stream()
+                    .anyMatch(other -> other.getStart().isBefore(end) && start.isBefore(other.getEnd()));
+            boolean overlapsSaved = getTimeline(itemId).overlaps(start, end);
+            if (overlapsSaved && reloadedItemIds.add(itemId)) {
+                overlapsSaved = reloadTimeline(itemId).overlaps(start, end);
+            }
+            if (overlapsBatch || overlapsSaved) {
+                throw new InvalidFieldException("Вещь с id = " + itemId + " уже забронирована на даты " + start + " - " + end + ". " +
+                        "Пакет бронирований не сохранен.");
+            }
+            accepted.add(booking);
+        }
+
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        savedBookings.forEach(booking -> getTimeline(booking.getItem().getId()).add(booking));
+        return savedBookings;
+    }
+
+    private ItemBookingTimeline getTimeline(long itemId) {
+        return timelines.get(itemId, this::loadTimeline);
+    }
+
+    private ItemBookingTimeline reloadTimeline(long itemId) {
+        ItemBookingTimeline timeline = loadTimeline(itemId);
+        timelines.put(itemId, timeline);
+        return timeline;
+    }
+
+    private ItemBookingTimeline loadTimeline(long itemId) {
+        return new ItemBookingTimeline(
+                bookingRepository.findAllByItem_IdAndStatusInAndEndAfter(itemId, BLOCKING_STATUSES, LocalDateTime.now())
+        );
+    }
+
+    private static int stripe(long itemId) {
+        return (int) Math.floorMod(itemId, (long) LOCK_STRIPES);
+    }
+}
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 
 import java.util.List;
 
 public interface BookingService {
     BookingOutputDto createBooking(long userId, BookingInputDto bookingDto);
 
+    List<BookingOutputDto> createBookings(long userId, List<BookingInputDto> bookingDtos);
+
     BookingOutputDto approveOrRejectBooking(long bookingId, long ownerId, boolean approved);
 
     BookingOutputDto getBookingByBookingId(long bookingId, long userId);
@@ -15,4 +19,12 @@ public interface BookingService {
     List<BookingOutputDto> getAllBookingsByOwnerId(long ownerId, String state, int from, int size);
 
     List<BookingOutputDto> getAllBookingsByUserId(long userId, String state, int from, int size);
+
+    List<BookingOutputDto> getAllBookingsByOwnerId(long ownerId, String state, BookingCursor cursor, int size);
+
+    List<BookingOutputDto> getAllBookingsByUserId(long userId, String state, BookingCursor cursor, int size);
+
+    BookingSummaryDto getBookingSummaryByUserId(long userId);
+
+    BookingSummaryDto getBookingSummaryByOwnerId(long ownerId);
 }
@@ -1,28 +1,33 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingInputDto;
 import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
 import ru.practicum.shareit.booking.enums.State;
 import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.exception.BookingNotFoundException;
 import ru.practicum.shareit.exception.InvalidFieldException;
+import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.exception.UnsupportedStatusException;
 import ru.practicum.shareit.item.Item;
-import ru.practicum.shareit.item.ItemDto;
-import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemReadModel;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 
@@ -31,53 +36,85 @@ public class BookingServiceImpl implements BookingService {
     private final UserService userService;
     private final ItemService itemService;
     private final BookingRepository bookingRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemReadModel itemReadModel;
+    private final ItemAvailabilityService itemAvailabilityService;
 
 
-    public BookingServiceImpl(UserService userService, ItemService itemService, BookingRepository bookingRepository) {
+    public BookingServiceImpl(UserService userService, ItemService itemService, BookingRepository bookingRepository,
+                              BookingIntervalIndex bookingIntervalIndex, ItemReadModel itemReadModel,
+                              ItemAvailabilityService itemAvailabilityService) {
         this.userService = userService;
         this.itemService = itemService;
         this.bookingRepository = bookingRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.itemReadModel = itemReadModel;
+        this.itemAvailabilityService = itemAvailabilityService;
     }
 
     @Override
     public BookingOutputDto createBooking(long userId, BookingInputDto bookingDto) {
         long itemId = bookingDto.getItemId();
-        User user = UserMapper.toUser(userService.getById(userId));
-        ItemDto itemDto = itemService.getById(userId, itemId);
-        Item item = ItemMapper.toItem(itemDto);
-        long ownerId = itemDto.getOwnerId();
-
-        if (itemDto.getAvailable().equals(false)) {
-            throw new InvalidFieldException("Вещь с id = " + itemId + " забронирована другим пользователем.");
-        }
-        if (userId == ownerId) {
-            throw new BookingNotFoundException("Владелец не может забронировать свою вещь.");
-        }
+        User user = userService.getReferenceById(userId);
+        Item item = itemService.getReferenceById(itemId);
+        validateBookable(userId, item);
 
         Booking booking = BookingMapper.toBooking(bookingDto, user, item);
         booking.setStatus(Status.WAITING);
 
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingIntervalIndex.saveIfFree(booking);
+        itemAvailabilityService.onBookingChanged(itemId);
+        return BookingMapper.toBookingDto(savedBooking);
+    }
+
+    @Override
+    public List<BookingOutputDto> createBookings(long userId, List<BookingInputDto> bookingDtos) {
+        User user = userService.getReferenceById(userId);
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingInputDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemService.getReferencesByIds(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Booking> bookings = new ArrayList<>(bookingDtos.size());
+        for (BookingInputDto bookingDto : bookingDtos) {
+            long itemId = bookingDto.getItemId();
+            Item item = items.get(itemId);
+            if (item == null) {
+                throw new ItemNotFoundException(itemId);
+            }
+            validateBookable(userId, item);
+
+            Booking booking = BookingMapper.toBooking(bookingDto, user, item);
+            booking.setStatus(Status.WAITING);
+            bookings.add(booking);
+        }
+
+        List<Booking> savedBookings = bookingIntervalIndex.saveAllIfFree(bookings);
+        itemIds.forEach(itemAvailabilityService::onBookingChanged);
+        return savedBookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
     }
 
     @Override
     public BookingOutputDto approveOrRejectBooking(long bookingId, long ownerId, boolean approved) {
         userService.getById(ownerId);
-        Booking booking = getById(bookingId);
-        Status status = booking.getStatus();
-        if (ownerId != booking.getItem().getOwnerId()) {
-            throw new BookingNotFoundException("Бронь с id = " + bookingId + " имеет другого владельца вещи.");
-        }
-        if (status.equals(Status.APPROVED) || status.equals(Status.REJECTED)) {
+        Status newStatus = approved ? Status.APPROVED : Status.REJECTED;
+        // переход из WAITING выполняется одним условным UPDATE, поэтому из двух одновременных решений проходит только одно
+        if (bookingRepository.updateStatus(bookingId, ownerId, Status.WAITING, newStatus) == 0) {
+            Booking booking = getById(bookingId);
+            if (ownerId != booking.getItem().getOwnerId()) {
+                throw new BookingNotFoundException("Бронь с id = " + bookingId + " имеет другого владельца вещи.");
+            }
             throw new InvalidFieldException("Бронирование уже подтверждено/отклонено владельцем.");
         }
 
-        if (approved) {
-            booking.setStatus(Status.APPROVED);
-        } else {
-            booking.setStatus(Status.REJECTED);
-        }
-        return BookingMapper.toBookingDto(bookingRepository.save(booking));
+        Booking savedBooking = getById(bookingId);
+        bookingIntervalIndex.update(savedBooking);
+        itemReadModel.onBookingStatusChanged(savedBooking);
+        itemAvailabilityService.onBookingChanged(savedBooking.getItem().getId());
+        return BookingMapper.toBookingDto(savedBooking);
     }
 
     @Override
@@ -95,20 +132,19 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingOutputDto> getAllBookingsByUserId(long userId, String state, int from, int size) {
         userService.getById(userId);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings;
+        List<BookingOutputDto> bookings;
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(from / size, size, sort);
+        PageRequest pageRequest = PageRequest.of(from / size, size);
         try {
             switch (State.valueOf(state.toUpperCase())) {
                 case CURRENT:
-                    bookings = bookingRepository.findAllByBookerIdAndStartLessThanAndEndGreaterThan(userId, now, now, pageRequest);
+                    bookings = bookingRepository.findCurrentByBookerId(userId, now, pageRequest);
                     break;
                 case PAST:
-                    bookings = bookingRepository.findAllByBookerIdAndStartLessThanAndEndLessThan(userId, now, now, pageRequest);
+                    bookings = bookingRepository.findPastByBookerId(userId, now, pageRequest);
                     break;
                 case FUTURE:
-                    bookings = bookingRepository.findAllByBookerIdAndStartGreaterThanAndEndGreaterThan(userId, now, now, pageRequest);
+                    bookings = bookingRepository.findFutureByBookerId(userId, now, pageRequest);
                     break;
                 case WAITING:
                     bookings = bookingRepository.findAllByBookerIdAndStatus(userId, Status.WAITING, pageRequest);
@@ -126,38 +162,35 @@ public class BookingServiceImpl implements BookingService {
             throw new UnsupportedStatusException();
         }
 
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        return bookings;
     }
 
     @Override
     public List<BookingOutputDto> getAllBookingsByOwnerId(long ownerId, String state, int from, int size) {
         userService.getById(ownerId);
         LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings;
+        List<BookingOutputDto> bookings;
 
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        PageRequest pageRequest = PageRequest.of(from / size, size, sort);
+        PageRequest pageRequest = PageRequest.of(from / size, size);
         try {
             switch (State.valueOf(state.toUpperCase())) {
                 case CURRENT:
-                    bookings = bookingRepository.findAllByItem_OwnerIdAndStartLessThanAndEndGreaterThan(ownerId, now, now, pageRequest);
+                    bookings = bookingRepository.findCurrentByItemOwnerId(ownerId, now, pageRequest);
                     break;
                 case PAST:
-                    bookings = bookingRepository.findAllByItem_OwnerIdAndStartLessThanAndEndLessThan(ownerId, now, now, pageRequest);
+                    bookings = bookingRepository.findPastByItemOwnerId(ownerId, now, pageRequest);
                     break;
                 case FUTURE:
-                    bookings = bookingRepository.findAllByItem_OwnerIdAndStartGreaterThanAndEndGreaterThan(ownerId, now, now, pageRequest);
+                    bookings = bookingRepository.findFutureByItemOwnerId(ownerId, now, pageRequest);
                     break;
                 case WAITING:
-                    bookings = bookingRepository.findAllByItem_OwnerIdAndStatus(ownerId, Status.WAITING, pageRequest);
+                    bookings = bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, Status.WAITING, pageRequest);
                     break;
                 case REJECTED:
-                    bookings = bookingRepository.findAllByItem_OwnerIdAndStatus(ownerId, Status.REJECTED, pageRequest);
+                    bookings = bookingRepository.findAllByItemOwnerIdAndStatus(ownerId, Status.REJECTED, pageRequest);
                     break;
                 case ALL:
-                    bookings = bookingRepository.findAllByItem_OwnerId(ownerId, pageRequest);
+                    bookings = bookingRepository.findAllByItemOwnerId(ownerId, pageRequest);
                     break;
                 default:
                     throw new UnsupportedStatusException();
@@ -170,9 +203,106 @@ public class BookingServiceImpl implements BookingService {
             throw new BookingNotFoundException("У владельца с id = " + ownerId + " пока нет вещей.");
         }
 
-        return bookings.stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        return bookings;
+    }
+
+    @Override
+    public List<BookingOutputDto> getAllBookingsByUserId(long userId, String state, BookingCursor cursor, int size) {
+        userService.getById(userId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursorStart = cursor.getStart();
+        long cursorId = cursor.getId();
+        List<BookingOutputDto> bookings;
+
+        PageRequest pageRequest = PageRequest.of(0, size);
+        try {
+            switch (State.valueOf(state.toUpperCase())) {
+                case CURRENT:
+                    bookings = bookingRepository.findCurrentByBookerIdAfterCursor(userId, now, cursorStart, cursorId, pageRequest);
+                    break;
+                case PAST:
+                    bookings = bookingRepository.findPastByBookerIdAfterCursor(userId, now, cursorStart, cursorId, pageRequest);
+                    break;
+                case FUTURE:
+                    bookings = bookingRepository.findFutureByBookerIdAfterCursor(userId, now, cursorStart, cursorId, pageRequest);
+                    break;
+                case WAITING:
+                    bookings = bookingRepository.findAllByBookerIdAndStatusAfterCursor(userId, Status.WAITING, cursorStart, cursorId, pageRequest);
+                    break;
+                case REJECTED:
+                    bookings = bookingRepository.findAllByBookerIdAndStatusAfterCursor(userId, Status.REJECTED, cursorStart, cursorId, pageRequest);
+                    break;
+                case ALL:
+                    bookings = bookingRepository.findAllByBookerIdAfterCursor(userId, cursorStart, cursorId, pageRequest);
+                    break;
+                default:
+                    throw new UnsupportedStatusException();
+            }
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedStatusException();
+        }
+
+        return bookings;
+    }
+
+    @Override
+    public List<BookingOutputDto> getAllBookingsByOwnerId(long ownerId, String state, BookingCursor cursor, int size) {
+        userService.getById(ownerId);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cursorStart = cursor.getStart();
+        long cursorId = cursor.getId();
+        List<BookingOutputDto> bookings;
+
+        PageRequest pageRequest = PageRequest.of(0, size);
+        try {
+            switch (State.valueOf(state.toUpperCase())) {
+                case CURRENT:
+                    bookings = bookingRepository.findCurrentByItemOwnerIdAfterCursor(ownerId, now, cursorStart, cursorId, pageRequest);
+                    break;
+                case PAST:
+                    bookings = bookingRepository.findPastByItemOwnerIdAfterCursor(ownerId, now, cursorStart, cursorId, pageRequest);
+                    break;
+                case FUTURE:
+                    bookings = bookingRepository.findFutureByItemOwnerIdAfterCursor(ownerId, now, cursorStart, cursorId, pageRequest);
+                    break;
+                case WAITING:
+                    bookings = bookingRepository.findAllByItemOwnerIdAndStatusAfterCursor(ownerId, Status.WAITING, cursorStart, cursorId, pageRequest);
+                    break;
+                case REJECTED:
+                    bookings = bookingRepository.findAllByItemOwnerIdAndStatusAfterCursor(ownerId, Status.REJECTED, cursorStart, cursorId, pageRequest);
+                    break;
+                case ALL:
+                    bookings = bookingRepository.findAllByItemOwnerIdAfterCursor(ownerId, cursorStart, cursorId, pageRequest);
+                    break;
+                default:
+                    throw new UnsupportedStatusException();
+            }
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedStatusException();
+        }
+
+        return bookings;
+    }
+
+    @Override
+    public BookingSummaryDto getBookingSummaryByUserId(long userId) {
+        userService.getById(userId);
+        return bookingRepository.getSummaryByBookerId(userId, LocalDateTime.now());
+    }
+
+    @Override
+    public BookingSummaryDto getBookingSummaryByOwnerId(long ownerId) {
+        userService.getById(ownerId);
+        return bookingRepository.getSummaryByItemOwnerId(ownerId, LocalDateTime.now());
+    }
+
+    private void validateBookable(long userId, Item item) {
+        if (item.getAvailable().equals(false)) {
+            throw new InvalidFieldException("Вещь с id = " + item.getId() + " забронирована другим пользователем.");
+        }
+        if (userId == item.getOwnerId()) {
+            throw new BookingNotFoundException("Владелец не может забронировать свою вещь.");
+        }
     }
 
     private Booking getById(long bookingId) {
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.Booking;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Интервалы блокирующих бронирований вещи по началу и id. Пока интервалы не пересекаются, концы упорядочены так же,
+ * как начала, и для проверки пересечения достаточно ближайшего интервала, начинающегося раньше конца нового.
+ * Бронирования, сохраненные до появления проверки, могут пересекаться, и тогда просматриваются все более ранние интервалы.
+ * Вызывается только под блокировкой вещи в BookingIntervalIndex.
+ */
+class ItemBookingTimeline {
+    private static final Comparator<Interval> BY_START = Comparator.comparing((Interval interval) -> interval.start)
+            .thenComparingLong(interval -> interval.bookingId);
+
+    private final NavigableSet<Interval> intervals = new TreeSet<>(BY_START);
+    private boolean disjoint = true;
+
+    ItemBookingTimeline(Collection<Booking> bookings) {
+        bookings.forEach(this::put);
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        for (Interval interval : intervals.headSet(new Interval(end, end, Long.MIN_VALUE), false).descendingSet()) {
+            if (interval.end.isAfter(start)) {
+                return true;
+            }
+            if (disjoint) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    LocalDateTime findNextFreeSlot(LocalDateTime from, Duration duration) {
+        LocalDateTime candidate = from;
+        Interval previous = disjoint ? intervals.floor(new Interval(from, from, Long.MAX_VALUE)) : null;
+        Iterable<Interval> following = previous == null ? intervals : intervals.tailSet(previous, true);
+        for (Interval interval : following) {
+            if (!interval.start.isBefore(candidate.plus(duration))) {
+                break;
+            }
+            if (interval.end.isAfter(candidate)) {
+                candidate = interval.end;
+            }
+        }
+        return candidate;
+    }
+
+    void add(Booking booking) {
+        pruneEndedBefore(LocalDateTime.now());
+        put(booking);
+    }
+
+    void remove(Booking booking) {
+        intervals.remove(new Interval(booking));
+    }
+
+    private void put(Booking booking) {
+        Interval interval = new Interval(booking);
+        intervals.remove(interval);
+        if (disjoint && overlaps(interval.start, interval.end)) {
+            disjoint = false;
+        }
+        intervals.add(interval);
+    }
+
+    private void pruneEndedBefore(LocalDateTime time) {
+        while (!intervals.isEmpty() && !intervals.first().end.isAfter(time)) {
+            intervals.pollFirst();
+        }
+    }
+
+    private static class Interval {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long bookingId;
+
+        Interval(Booking booking) {
+            this(booking.getStart(), booking.getEnd(), booking.getId());
+        }
+
+        Interval(LocalDateTime start, LocalDateTime end, long bookingId) {
+            this.start = start;
+            this.end = end;
+            this.bookingId = bookingId;
+        }
+    }
+}
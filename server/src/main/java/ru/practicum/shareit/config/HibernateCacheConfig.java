@@ -0,0 +1,59 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Регионы второго уровня кэша Hibernate на Caffeine JCache.
+ * Размеры и время жизни задаются в application.properties, регион меток обновления таблиц не вытесняется,
+ * иначе кэш запросов может вернуть устаревший результат.
+ */
+@Configuration
+public class HibernateCacheConfig {
+    private static final String ITEMS_REGION = "items";
+    private static final String USERS_REGION = "users";
+    private static final String REQUESTS_REGION = "requests";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${shareit.cache.entities.maximum-size:10000}") long entitiesMaximumSize,
+                                              @Value("${shareit.cache.entities.expire-after-write:10m}") Duration entitiesExpireAfterWrite,
+                                              @Value("${shareit.cache.queries.maximum-size:1000}") long queriesMaximumSize,
+                                              @Value("${shareit.cache.queries.expire-after-write:1m}") Duration queriesExpireAfterWrite) {
+        // собственный URI у каждого контекста: менеджер по умолчанию общий для JVM, и второй контекст не смог бы создать в нем регионы
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("shareit-hibernate-" + UUID.randomUUID()), provider.getDefaultClassLoader());
+        for (String region : new String[]{ITEMS_REGION, USERS_REGION, REQUESTS_REGION}) {
+            cacheManager.createCache(region, boundedConfiguration(entitiesMaximumSize, entitiesExpireAfterWrite));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                boundedConfiguration(queriesMaximumSize, queriesExpireAfterWrite));
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> boundedConfiguration(long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        return configuration;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -39,4 +40,11 @@ public class ErrorHandler {
         log.warn(e.getMessage());
         return new ErrorResponse("Ошибка при создании комментария", e.getMessage());
     }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailure(final OptimisticLockingFailureException e) {
+        log.warn(e.getMessage());
+        return new ErrorResponse("Конфликт изменений", "Запись была изменена другим запросом, повторите попытку.");
+    }
 }
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class AvailabilityIntervalDto {
+    LocalDateTime start;
+    LocalDateTime end;
+    boolean free;
+}
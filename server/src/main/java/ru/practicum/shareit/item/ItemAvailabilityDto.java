@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Свободные и занятые промежутки вещи в окне [from, to) по порядку, без разрывов между ними.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class ItemAvailabilityDto {
+    Long itemId;
+    LocalDateTime from;
+    LocalDateTime to;
+    List<AvailabilityIntervalDto> intervals;
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -12,9 +13,15 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
+import ru.practicum.shareit.item.service.ItemImportService;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -24,7 +31,10 @@ import java.util.List;
 public class ItemController {
     private static final String REQUEST_HEADER = "X-Sharer-User-Id";
     private static final String ITEM_ID_PATH_VARIABLE = "itemId";
+    private static final String NDJSON = "application/x-ndjson";
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
+    private final ItemAvailabilityService itemAvailabilityService;
 
     @GetMapping
     public List<ItemDto> findAllItems(@RequestHeader(REQUEST_HEADER) long ownerId, @RequestParam(required = false, defaultValue = "0") int from,
@@ -39,6 +49,14 @@ public class ItemController {
         return itemService.getById(userId, itemId);
     }
 
+    @GetMapping(value = "/{" + ITEM_ID_PATH_VARIABLE + "}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable(ITEM_ID_PATH_VARIABLE) long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос к эндпоинту: {} /items/{}/availability?from={}&to={}", "GET", itemId, from, to);
+        return itemAvailabilityService.getAvailability(itemId, from, to);
+    }
+
     @PostMapping
     public ItemDto createItem(@RequestHeader(REQUEST_HEADER) long ownerId, @RequestBody ItemDto itemDto) {
         log.info("Получен запрос к эндпоинту: {} {}", "POST", "/items");
@@ -46,6 +64,12 @@ public class ItemController {
         return itemService.create(ownerId, itemDto);
     }
 
+    @PostMapping(value = "/import", consumes = NDJSON, produces = NDJSON)
+    public StreamingResponseBody importItems(@RequestHeader(REQUEST_HEADER) long ownerId, HttpServletRequest request) throws IOException {
+        log.info("Получен запрос к эндпоинту: {} {}", "POST", "/items/import");
+        return itemImportService.importItems(ownerId, request.getInputStream());
+    }
+
     @PatchMapping(value = "/{" + ITEM_ID_PATH_VARIABLE + "}")
     public ItemDto patchItem(@RequestHeader(REQUEST_HEADER) long ownerId, @PathVariable(ITEM_ID_PATH_VARIABLE) long itemId, @RequestBody ItemDto itemDto) {
         log.info("Получен запрос к эндпоинту: {} /items/{}", "PATCH", itemId);
@@ -56,9 +80,10 @@ public class ItemController {
 
     @GetMapping(value = "/search")
     public List<ItemDto> searchItems(@RequestParam String text, @RequestParam(required = false, defaultValue = "0") int from,
-                                     @RequestParam(required = false, defaultValue = "10") int size) {
-        log.info("Получен запрос к эндпоинту: {} /items/search?from={}&size={}", "GET", from, size);
-        return itemService.searchItemsByText(text, from, size);
+                                     @RequestParam(required = false, defaultValue = "10") int size,
+                                     @RequestParam(required = false, defaultValue = "exact") String mode) {
+        log.info("Получен запрос к эндпоинту: {} /items/search?from={}&size={}&mode={}", "GET", from, size, mode);
+        return itemService.searchItemsByText(text, ItemSearchMode.from(mode), from, size);
     }
 
     @DeleteMapping(value = "/{" + ITEM_ID_PATH_VARIABLE + "}")
@@ -73,6 +98,13 @@ public class ItemController {
         itemService.deleteItem(ownerId, itemDto);
     }
 
+    @GetMapping(value = "/{" + ITEM_ID_PATH_VARIABLE + "}/comments")
+    public List<CommentDto> findComments(@PathVariable(ITEM_ID_PATH_VARIABLE) long itemId, @RequestParam(required = false, defaultValue = "0") int from,
+                                         @RequestParam(required = false, defaultValue = "10") int size) {
+        log.info("Получен запрос к эндпоинту: {} /items/{}/comments?from={}&size={}", "GET", itemId, from, size);
+        return itemService.getComments(itemId, from, size);
+    }
+
     @PostMapping(value = "/{itemId}/comment")
     public CommentDto addComment(@RequestHeader(REQUEST_HEADER) long userId, @PathVariable(ITEM_ID_PATH_VARIABLE) long itemId, @RequestBody CommentDto commentDto) {
         log.info("Получен запрос к эндпоинту: {} /items/{}/comment", "POST", itemId);
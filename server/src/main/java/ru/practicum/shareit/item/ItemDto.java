@@ -26,4 +26,5 @@ public class ItemDto {
     BookingOutputDto lastBooking;
     BookingOutputDto nextBooking;
     List<CommentDto> comments;
+    Long commentCount;
 }
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+/**
+ * Результат импорта одной строки NDJSON: id созданной вещи либо описание ошибки.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ItemImportResult {
+    long line;
+    Long id;
+    String error;
+}
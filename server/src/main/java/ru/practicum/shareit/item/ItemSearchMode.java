@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item;
+
+import ru.practicum.shareit.exception.InvalidFieldException;
+
+public enum ItemSearchMode {
+    EXACT,
+    FUZZY;
+
+    public static ItemSearchMode from(String mode) {
+        for (ItemSearchMode searchMode : values()) {
+            if (searchMode.name().equalsIgnoreCase(mode)) {
+                return searchMode;
+            }
+        }
+        throw new InvalidFieldException("Неизвестный режим поиска: " + mode);
+    }
+}
@@ -1,11 +1,27 @@
 package ru.practicum.shareit.item.comment;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findAllByItemIdOrderByCreatedDesc(long itemId);
+    @Query("SELECT new ru.practicum.shareit.item.comment.CommentDto(c.id, c.text, a.name, c.created, c.item.id) " +
+            "FROM Comment c JOIN c.author a WHERE c.item.id = :itemId ORDER BY c.created DESC, c.id DESC")
+    List<CommentDto> findCommentDtosByItemId(@Param("itemId") long itemId, Pageable pageable);
+
+    @Query(value = "SELECT id, text, author_name, created_date, item_id FROM (" +
+            "SELECT c.id, c.text, u.name AS author_name, c.created_date, c.item_id, " +
+            "ROW_NUMBER() OVER (PARTITION BY c.item_id ORDER BY c.created_date DESC, c.id DESC) AS rn " +
+            "FROM comments c JOIN users u ON u.id = c.author_id WHERE c.item_id IN (:itemIds)) AS latest_comments " +
+            "WHERE rn <= :limit ORDER BY item_id, rn", nativeQuery = true)
+    List<Object[]> findLatestCommentRowsByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
+
+    @Query("SELECT c.item.id, COUNT(c) FROM Comment c WHERE c.item.id IN :itemIds GROUP BY c.item.id")
+    List<Object[]> countByItemIds(@Param("itemIds") Collection<Long> itemIds);
 }
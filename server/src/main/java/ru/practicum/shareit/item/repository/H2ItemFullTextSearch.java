@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Поиск для H2: как и префиксный tsquery в PostgreSQL, каждое слово запроса должно совпасть с началом слова
+ * названия или описания — в начале текста или после пробела либо знака препинания.
+ */
+@Component
+@Profile({"ci", "test"})
+public class H2ItemFullTextSearch implements ItemFullTextSearch {
+    private static final String WORD_START = "(^|[^\\p{L}\\p{Nd}])";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> searchAvailableItems(List<String> tokens, PageRequest pageRequest) {
+        StringBuilder sql = new StringBuilder("SELECT i.id, i.name, i.description, i.is_available, i.owner_id, i.request_id " +
+                "FROM items i WHERE i.is_available");
+        for (int i = 0; i < tokens.size(); i++) {
+            sql.append(" AND (REGEXP_LIKE(LOWER(i.name), :token").append(i)
+                    .append(") OR REGEXP_LIKE(LOWER(i.description), :token").append(i).append("))");
+        }
+        sql.append(" ORDER BY CASE WHEN REGEXP_LIKE(LOWER(i.name), :token0) THEN 0 ELSE 1 END, i.id");
+
+        Query query = entityManager.createNativeQuery(sql.toString(), Item.class);
+        for (int i = 0; i < tokens.size(); i++) {
+            query.setParameter("token" + i, WORD_START + Pattern.quote(tokens.get(i)));
+        }
+        return query.setFirstResult((int) pageRequest.getOffset())
+                .setMaxResults(pageRequest.getPageSize())
+                .getResultList();
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.Item;
+
+import java.util.List;
+
+public interface ItemFullTextSearch {
+    List<Item> searchAvailableItems(List<String> tokens, PageRequest pageRequest);
+}
@@ -0,0 +1,272 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс триграмм названия и описания доступных вещей для поиска с опечатками.
+ * Похожесть названия — доля общих триграмм от объединения триграмм запроса и названия, похожесть описания — доля триграмм запроса,
+ * найденных в описании. Итоговая оценка учитывает название с большим весом, лучшие результаты отбираются ограниченной кучей.
+ * Строится из базы при первом поиске и далее обновляется инкрементально из ItemServiceImpl.
+ */
+@Component
+public class ItemNgramIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int MAX_QUERY_GRAMS = 64;
+    private static final double NAME_WEIGHT = 2.0;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int MIN_DEAD_TO_REBUILD = 10_000;
+    private static final int DESCRIPTION_FLAG = 1;
+    private static final int NAME_HIT_SHIFT = 8;
+    private static final int DESCRIPTION_HIT_MASK = (1 << NAME_HIT_SHIFT) - 1;
+    private static final Comparator<Match> WORST_FIRST = Comparator.comparingDouble((Match match) -> match.score)
+            .thenComparing(match -> match.itemId, Comparator.reverseOrder());
+
+    private final ItemRepository itemRepository;
+    private final double minSimilarity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private long[] itemIds = new long[1024];
+    private byte[] nameGramCounts = new byte[1024];
+    private int size;
+    private int dead;
+    private volatile boolean loaded;
+
+    public ItemNgramIndex(@Lazy ItemRepository itemRepository,
+                          @Value("${shareit.search.fuzzy.min-similarity:0.3}") double minSimilarity) {
+        this.itemRepository = itemRepository;
+        this.minSimilarity = minSimilarity;
+    }
+
+    public List<Long> search(String text, long offset, int limit) {
+        long[] queryGrams = grams(text);
+        if (queryGrams.length == 0) {
+            return List.of();
+        }
+        if (queryGrams.length > MAX_QUERY_GRAMS) {
+            queryGrams = Arrays.copyOf(queryGrams, MAX_QUERY_GRAMS);
+        }
+        int topK = (int) Math.min(Integer.MAX_VALUE, offset + limit);
+
+        while (true) {
+            ensureLoaded();
+            lock.readLock().lock();
+            try {
+                // между загрузкой и захватом блокировки индекс мог быть сброшен — тогда загружаем его заново
+                if (loaded) {
+                    return search(queryGrams, offset, limit, topK);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+    private List<Long> search(long[] queryGrams, long offset, int limit, int topK) {
+        // оцениваются только вещи из списков триграмм запроса;
+        // совпадения в названии и в описании считаются в одном числе: название в старших битах, описание в младшем байте
+        Map<Integer, Integer> hits = new HashMap<>();
+        for (long gram : queryGrams) {
+            Postings gramPostings = postings.get(gram);
+            if (gramPostings == null) {
+                continue;
+            }
+            for (int i = 0; i < gramPostings.size; i++) {
+                int entry = gramPostings.entries[i];
+                int ordinal = entry >>> 1;
+                if (live.get(ordinal)) {
+                    hits.merge(ordinal, (entry & DESCRIPTION_FLAG) == 0 ? 1 << NAME_HIT_SHIFT : 1, Integer::sum);
+                }
+            }
+        }
+
+        PriorityQueue<Match> best = new PriorityQueue<>(Math.min(topK, 1024), WORST_FIRST);
+        int queryGramCount = queryGrams.length;
+        for (Map.Entry<Integer, Integer> candidate : hits.entrySet()) {
+            int ordinal = candidate.getKey();
+            int ordinalHits = candidate.getValue();
+            int nameShared = ordinalHits >>> NAME_HIT_SHIFT;
+            int descriptionShared = ordinalHits & DESCRIPTION_HIT_MASK;
+            double nameSimilarity = nameShared / (double) (queryGramCount + nameGramCounts[ordinal] - nameShared);
+            double descriptionSimilarity = descriptionShared / (double) queryGramCount;
+            if (Math.max(nameSimilarity, descriptionSimilarity) < minSimilarity) {
+                continue;
+            }
+            double score = NAME_WEIGHT * nameSimilarity + descriptionSimilarity;
+            if (best.size() < topK) {
+                best.add(new Match(itemIds[ordinal], score));
+            } else if (score > best.peek().score || (score == best.peek().score && itemIds[ordinal] < best.peek().itemId)) {
+                best.poll();
+                best.add(new Match(itemIds[ordinal], score));
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(WORST_FIRST.reversed());
+        List<Long> page = new ArrayList<>(limit);
+        for (int i = (int) Math.min(offset, matches.size()); i < matches.size(); i++) {
+            page.add(matches.get(i).itemId);
+        }
+        return page;
+    }
+
+    public void put(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            removeDocument(item.getId());
+            addDocument(item.getId(), item.getName(), item.getDescription(), Boolean.TRUE.equals(item.getAvailable()));
+            resetIfMostlyDead();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            removeDocument(itemId);
+            resetIfMostlyDead();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                long afterId = 0;
+                List<Object[]> rows;
+                do {
+                    rows = itemRepository.findAvailableSearchRowsAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                    for (Object[] row : rows) {
+                        afterId = (Long) row[0];
+                        addDocument(afterId, (String) row[1], (String) row[2], true);
+                    }
+                } while (rows.size() == LOAD_BATCH_SIZE);
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(long itemId, String name, String description, boolean available) {
+        if (!available) {
+            return;
+        }
+        int ordinal = size++;
+        if (ordinal == itemIds.length) {
+            itemIds = Arrays.copyOf(itemIds, ordinal * 2);
+            nameGramCounts = Arrays.copyOf(nameGramCounts, ordinal * 2);
+        }
+        itemIds[ordinal] = itemId;
+        ordinals.put(itemId, ordinal);
+        live.set(ordinal);
+
+        long[] nameGrams = grams(name);
+        nameGramCounts[ordinal] = (byte) Math.min(nameGrams.length, Byte.MAX_VALUE);
+        for (long gram : nameGrams) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(ordinal << 1);
+        }
+        for (long gram : grams(description)) {
+            postings.computeIfAbsent(gram, key -> new Postings()).add(ordinal << 1 | DESCRIPTION_FLAG);
+        }
+    }
+
+    private void removeDocument(long itemId) {
+        Integer ordinal = ordinals.remove(itemId);
+        if (ordinal == null) {
+            return;
+        }
+        live.clear(ordinal);
+        dead++;
+    }
+
+    private void resetIfMostlyDead() {
+        // записи удаленных документов остаются в списках триграмм, поэтому когда их становится больше живых,
+        // индекс сбрасывается и заново строится из базы при следующем поиске
+        if (dead > MIN_DEAD_TO_REBUILD && dead > ordinals.size()) {
+            postings.clear();
+            ordinals.clear();
+            live.clear();
+            size = 0;
+            dead = 0;
+            loaded = false;
+        }
+    }
+
+    /**
+     * Отсортированные различные триграммы слов текста; слово дополняется пробелами, чтобы учитывались его начало и конец.
+     */
+    static long[] grams(String text) {
+        List<String> tokens = ItemSearchIndex.tokenize(text);
+        int count = 0;
+        for (String token : tokens) {
+            count += token.length() + 1;
+        }
+        long[] grams = new long[count];
+        int length = 0;
+        for (String token : tokens) {
+            String padded = "  " + token + " ";
+            for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+                grams[length++] = (long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16 | padded.charAt(i + 2);
+            }
+        }
+        Arrays.sort(grams, 0, length);
+        int distinct = 0;
+        for (int i = 0; i < length; i++) {
+            if (distinct == 0 || grams[distinct - 1] != grams[i]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static class Postings {
+        private int[] entries = new int[4];
+        private int size;
+
+        void add(int entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entry;
+        }
+    }
+
+    private static class Match {
+        private final long itemId;
+        private final double score;
+
+        Match(long itemId, double score) {
+            this.itemId = itemId;
+            this.score = score;
+        }
+    }
+}
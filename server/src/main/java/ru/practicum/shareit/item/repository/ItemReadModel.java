@@ -0,0 +1,282 @@
+package ru.practicum.shareit.item.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.user.UserDeletedEvent;
+import ru.practicum.shareit.user.UserUpdatedEvent;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Денормализованное представление вещи для чтения: поля вещи, последнее и следующее подтвержденные бронирования,
+ * число комментариев и последние комментарии. Строится из базы при первом чтении пакетом запросов, число которых не зависит от числа вещей,
+ * и далее обновляется из ItemServiceImpl и BookingServiceImpl, поэтому повторное чтение вещи — поиск по ключу.
+ * Имена пользователей и строки, удаляемые каскадом вместе с пользователем, меняются в UserServiceImpl:
+ * по его событиям сбрасываются представления только перечисленных в них вещей.
+ */
+@Component
+public class ItemReadModel {
+    private static final int STAMP_STRIPES = 1024;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final int latestComments;
+    private final Cache<Long, ItemView> views;
+    // счетчики изменений по полосам id: представление, прочитанное из базы параллельно с записью, в кэш не попадает
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    public ItemReadModel(ItemRepository itemRepository, BookingRepository bookingRepository, CommentRepository commentRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${shareit.items.latest-comments:10}") int latestComments,
+                         @Value("${shareit.cache.items.maximum-size:10000}") long maximumSize,
+                         @Value("${shareit.cache.items.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.latestComments = latestComments;
+        this.views = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, views, "items");
+    }
+
+    public Optional<ItemDto> get(long itemId) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemView view = views.getIfPresent(itemId);
+        if (view != null && view.isActual(now)) {
+            return Optional.of(view.toItemDto());
+        }
+        long stamp = stamps.get(stripe(itemId));
+        Optional<Item> item = itemRepository.findById(itemId);
+        if (item.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(load(List.of(item.get()), Map.of(itemId, stamp), now).get(0).toItemDto());
+    }
+
+    public List<ItemDto> getAll(List<Item> items) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemView> found = new HashMap<>();
+        List<Item> missing = new ArrayList<>();
+        Map<Long, Long> missingStamps = new HashMap<>();
+        for (Item item : items) {
+            ItemView view = views.getIfPresent(item.getId());
+            if (view != null && view.isActual(now)) {
+                found.put(item.getId(), view);
+            } else {
+                missing.add(item);
+                missingStamps.put(item.getId(), stamps.get(stripe(item.getId())));
+            }
+        }
+        if (!missing.isEmpty()) {
+            load(missing, missingStamps, now).forEach(view -> found.put(view.item.getId(), view));
+        }
+        return items.stream()
+                .map(item -> found.get(item.getId()).toItemDto())
+                .collect(Collectors.toList());
+    }
+
+    public void onItemCreated(Item item) {
+        stamps.incrementAndGet(stripe(item.getId()));
+        views.put(item.getId(), new ItemView(ItemMapper.toItemDto(item), null, null, 0, List.of()));
+    }
+
+    public void onItemChanged(long itemId) {
+        stamps.incrementAndGet(stripe(itemId));
+        views.invalidate(itemId);
+    }
+
+    public void onBookingStatusChanged(Booking booking) {
+        if (booking.getStatus() != Status.APPROVED) {
+            return;
+        }
+        long itemId = booking.getItem().getId();
+        stamps.incrementAndGet(stripe(itemId));
+        BookingOutputDto bookingDto = BookingMapper.toBookingDto(booking);
+        LocalDateTime now = LocalDateTime.now();
+        views.asMap().computeIfPresent(itemId, (id, view) -> view.withApprovedBooking(bookingDto, now));
+    }
+
+    public void onCommentAdded(long itemId, CommentDto commentDto) {
+        stamps.incrementAndGet(stripe(itemId));
+        views.asMap().computeIfPresent(itemId, (id, view) -> view.withComment(commentDto, latestComments));
+    }
+
+    /**
+     * Сервис пользователей работает без транзакции, и тогда событие обрабатывается сразу после уже зафиксированного изменения.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        invalidate(event.getItemIds());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        invalidate(event.getItemIds());
+    }
+
+    private void invalidate(Collection<Long> itemIds) {
+        itemIds.forEach(itemId -> stamps.incrementAndGet(stripe(itemId)));
+        views.invalidateAll(itemIds);
+    }
+
+    private List<ItemView> load(List<Item> items, Map<Long, Long> loadStamps, LocalDateTime now) {
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        List<Long> bookingIds = bookingRepository.findLastAndNextBookingIdsByItemIds(itemIds, Status.APPROVED.name(), now).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        List<Booking> bookings = bookingIds.isEmpty() ? List.of() : bookingRepository.findAllWithItemAndBookerByIdIn(bookingIds);
+        for (Booking booking : bookings) {
+            if (booking.getStart().isBefore(now)) {
+                lastBookings.put(booking.getItem().getId(), booking);
+            } else {
+                nextBookings.put(booking.getItem().getId(), booking);
+            }
+        }
+
+        Map<Long, List<CommentDto>> comments = new HashMap<>();
+        for (Object[] row : commentRepository.findLatestCommentRowsByItemIds(itemIds, latestComments)) {
+            CommentDto commentDto = CommentDto.builder()
+                    .id(((Number) row[0]).longValue())
+                    .text((String) row[1])
+                    .authorName((String) row[2])
+                    .created(((Timestamp) row[3]).toLocalDateTime())
+                    .itemId(((Number) row[4]).longValue())
+                    .build();
+            comments.computeIfAbsent(commentDto.getItemId(), id -> new ArrayList<>()).add(commentDto);
+        }
+
+        // полная страница — значит, комментариев может быть больше, и только для таких вещей нужен подсчет
+        List<Long> fullPageItemIds = comments.entrySet().stream()
+                .filter(entry -> entry.getValue().size() >= latestComments)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        Map<Long, Long> commentCounts = new HashMap<>();
+        if (!fullPageItemIds.isEmpty()) {
+            for (Object[] row : commentRepository.countByItemIds(fullPageItemIds)) {
+                commentCounts.put((Long) row[0], (Long) row[1]);
+            }
+        }
+
+        List<ItemView> loaded = new ArrayList<>(items.size());
+        for (Item item : items) {
+            long itemId = item.getId();
+            List<CommentDto> itemComments = comments.getOrDefault(itemId, List.of());
+            Booking lastBooking = lastBookings.get(itemId);
+            Booking nextBooking = nextBookings.get(itemId);
+            ItemView view = new ItemView(ItemMapper.toItemDto(item),
+                    lastBooking == null ? null : BookingMapper.toBookingDto(lastBooking),
+                    nextBooking == null ? null : BookingMapper.toBookingDto(nextBooking),
+                    commentCounts.getOrDefault(itemId, (long) itemComments.size()),
+                    List.copyOf(itemComments));
+            views.asMap().compute(itemId, (id, cached) -> {
+                if (cached != null && cached.isActual(now)) {
+                    return cached;
+                }
+                return stamps.get(stripe(id)) == loadStamps.get(id) ? view : null;
+            });
+            loaded.add(view);
+        }
+        return loaded;
+    }
+
+    private static int stripe(long itemId) {
+        return (int) Math.floorMod(itemId, (long) STAMP_STRIPES);
+    }
+
+    private static final class ItemView {
+        private static final Comparator<BookingOutputDto> LAST_ORDER = Comparator.comparing(BookingOutputDto::getEnd)
+                .thenComparing(BookingOutputDto::getId);
+        private static final Comparator<BookingOutputDto> NEXT_ORDER = Comparator.comparing(BookingOutputDto::getStart)
+                .thenComparing(BookingOutputDto::getId);
+
+        private final ItemDto item;
+        private final BookingOutputDto lastBooking;
+        private final BookingOutputDto nextBooking;
+        private final long commentCount;
+        private final List<CommentDto> comments;
+
+        ItemView(ItemDto item, BookingOutputDto lastBooking, BookingOutputDto nextBooking, long commentCount, List<CommentDto> comments) {
+            this.item = item;
+            this.lastBooking = lastBooking;
+            this.nextBooking = nextBooking;
+            this.commentCount = commentCount;
+            this.comments = comments;
+        }
+
+        /**
+         * Следующее бронирование, которое уже началось, становится последним, а новое следующее из представления не вывести.
+         */
+        boolean isActual(LocalDateTime now) {
+            return nextBooking == null || nextBooking.getStart().isAfter(now);
+        }
+
+        ItemView withApprovedBooking(BookingOutputDto booking, LocalDateTime now) {
+            if (booking.getStart().isBefore(now)) {
+                boolean isLast = lastBooking == null || LAST_ORDER.compare(booking, lastBooking) > 0;
+                return isLast ? new ItemView(item, booking, nextBooking, commentCount, comments) : this;
+            }
+            boolean isNext = nextBooking == null || NEXT_ORDER.compare(booking, nextBooking) < 0;
+            return isNext ? new ItemView(item, lastBooking, booking, commentCount, comments) : this;
+        }
+
+        ItemView withComment(CommentDto comment, int limit) {
+            List<CommentDto> latest = new ArrayList<>(Math.min(comments.size() + 1, limit));
+            latest.add(comment);
+            comments.stream()
+                    .limit(limit - 1)
+                    .forEach(latest::add);
+            return new ItemView(item, lastBooking, nextBooking, commentCount + 1, List.copyOf(latest));
+        }
+
+        ItemDto toItemDto() {
+            return ItemDto.builder()
+                    .id(item.getId())
+                    .name(item.getName())
+                    .description(item.getDescription())
+                    .available(item.getAvailable())
+                    .ownerId(item.getOwnerId())
+                    .requestId(item.getRequestId())
+                    .lastBooking(lastBooking)
+                    .nextBooking(nextBooking)
+                    .comments(comments)
+                    .commentCount(commentCount)
+                    .build();
+        }
+    }
+}
@@ -2,17 +2,28 @@ package ru.practicum.shareit.item.repository;
 
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long>, ItemRepositoryCustom {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Item> findAllByOwnerId(long ownerId, PageRequest pageRequest);
 
     List<Item> findAllByOwnerId(long ownerId);
 
-    List<Item> findAllByRequestId(long requestId);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("SELECT i.id, i.name, i.description FROM Item i WHERE i.available = true AND i.id > :afterId ORDER BY i.id")
+    List<Object[]> findAvailableSearchRowsAfter(@Param("afterId") long afterId, Pageable pageable);
 }
@@ -7,4 +7,6 @@ import java.util.List;
 
 public interface ItemRepositoryCustom {
     List<Item> searchItemsByText(String text, PageRequest pageRequest);
+
+    List<Item> fuzzySearchItemsByText(String text, PageRequest pageRequest);
 }
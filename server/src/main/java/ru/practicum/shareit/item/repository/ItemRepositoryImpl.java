@@ -1,23 +1,71 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.item.Item;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class ItemRepositoryImpl implements ItemRepositoryCustom {
+    private static final String INDEX_SEARCH_ENGINE = "index";
+
     private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemNgramIndex itemNgramIndex;
+    private final ItemFullTextSearch itemFullTextSearch;
+    private final String searchEngine;
 
-    public ItemRepositoryImpl(@Lazy ItemRepository itemRepository) {
+    public ItemRepositoryImpl(@Lazy ItemRepository itemRepository, ItemSearchIndex itemSearchIndex, ItemNgramIndex itemNgramIndex,
+                              ItemFullTextSearch itemFullTextSearch, @Value("${shareit.search.engine:database}") String searchEngine) {
         this.itemRepository = itemRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemNgramIndex = itemNgramIndex;
+        this.itemFullTextSearch = itemFullTextSearch;
+        this.searchEngine = searchEngine;
     }
 
     @Override
     public List<Item> searchItemsByText(String text, PageRequest pageRequest) {
-        return itemRepository.findAll(pageRequest).stream()
-                .filter(item -> item.getAvailable() && (item.getName().toLowerCase().contains(text) || item.getDescription().toLowerCase().contains(text)))
+        if (INDEX_SEARCH_ENGINE.equals(searchEngine)) {
+            return searchInIndex(text, pageRequest);
+        }
+
+        List<String> tokens = ItemSearchIndex.tokenize(text);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return itemFullTextSearch.searchAvailableItems(tokens, pageRequest);
+    }
+
+    @Override
+    public List<Item> fuzzySearchItemsByText(String text, PageRequest pageRequest) {
+        return findAllInOrder(itemNgramIndex.search(text, pageRequest.getOffset(), pageRequest.getPageSize()), itemNgramIndex::remove);
+    }
+
+    private List<Item> searchInIndex(String text, PageRequest pageRequest) {
+        return findAllInOrder(itemSearchIndex.search(text, pageRequest.getOffset(), pageRequest.getPageSize()), itemSearchIndex::remove);
+    }
+
+    private List<Item> findAllInOrder(List<Long> ids, Consumer<Long> staleIdHandler) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Item> itemsById = itemRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        ids.stream()
+                .filter(id -> !itemsById.containsKey(id))
+                .forEach(staleIdHandler);
+
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,245 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс по названию и описанию доступных вещей.
+ * Строится из базы при первом поиске и далее обновляется инкрементально из ItemServiceImpl.
+ */
+@Component
+public class ItemSearchIndex {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int MAX_PREFIX_EXPANSION = 64;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, NavigableSet<Long>> postings = new TreeMap<>();
+    private final NavigableMap<Long, IndexedItem> documents = new TreeMap<>();
+    private volatile boolean loaded;
+
+    public ItemSearchIndex(@Lazy ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    public List<Long> search(String text, long offset, int limit) {
+        ensureLoaded();
+        String query = text.toLowerCase(Locale.ROOT);
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<NavigableSet<Long>> candidates = new ArrayList<>();
+            List<String> widePrefixes = new ArrayList<>();
+            for (String queryToken : queryTokens) {
+                NavigableSet<Long> ids = findByPrefix(queryToken);
+                if (ids == null) {
+                    widePrefixes.add(queryToken);
+                    continue;
+                }
+                if (ids.isEmpty()) {
+                    return List.of();
+                }
+                candidates.add(ids);
+            }
+            candidates.sort(Comparator.comparingInt(NavigableSet::size));
+
+            List<Long> page = new ArrayList<>();
+            long skipped = 0;
+            Iterable<Long> firstCandidates = candidates.isEmpty() ? documents.keySet() : candidates.get(0);
+            for (Long id : firstCandidates) {
+                if (page.size() == limit) {
+                    break;
+                }
+                IndexedItem document = documents.get(id);
+                if (!containsInAll(candidates, id) || !document.matches(query) || !document.hasWordsStartingWith(widePrefixes)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    page.add(id);
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Изменение применяется под блокировкой записи, поэтому при идущей загрузке оно ждет ее окончания
+     * и не теряется, даже если загрузка уже прочитала вещь из базы или еще не увидела ее.
+     */
+    public void put(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            removeDocument(item.getId());
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                addDocument(item.getId(), item.getName(), item.getDescription());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            removeDocument(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                long afterId = 0;
+                List<Object[]> rows;
+                do {
+                    rows = itemRepository.findAvailableSearchRowsAfter(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                    for (Object[] row : rows) {
+                        afterId = (Long) row[0];
+                        addDocument(afterId, (String) row[1], (String) row[2]);
+                    }
+                } while (rows.size() == LOAD_BATCH_SIZE);
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Вещи со словами, начинающимися с префикса, или null, если префикс покрывает слишком много разных слов:
+     * тогда кандидаты проверяются по тексту, а не объединением списков всех этих слов.
+     */
+    private NavigableSet<Long> findByPrefix(String prefix) {
+        NavigableMap<String, NavigableSet<Long>> matches = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        int expansion = 0;
+        for (String ignored : matches.keySet()) {
+            if (++expansion > MAX_PREFIX_EXPANSION) {
+                return null;
+            }
+        }
+        if (expansion == 1) {
+            return matches.firstEntry().getValue();
+        }
+        NavigableSet<Long> ids = new TreeSet<>();
+        matches.values().forEach(ids::addAll);
+        return ids;
+    }
+
+    private boolean containsInAll(List<NavigableSet<Long>> candidates, Long id) {
+        for (int i = 1; i < candidates.size(); i++) {
+            if (!candidates.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addDocument(long itemId, String name, String description) {
+        IndexedItem document = new IndexedItem(name, description);
+        documents.put(itemId, document);
+        for (String token : document.tokens()) {
+            postings.computeIfAbsent(token, key -> new TreeSet<>()).add(itemId);
+        }
+    }
+
+    private void removeDocument(Long itemId) {
+        IndexedItem document = documents.remove(itemId);
+        if (document == null) {
+            return;
+        }
+        for (String token : document.tokens()) {
+            NavigableSet<Long> ids = postings.get(token);
+            if (ids != null) {
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private static class IndexedItem {
+        private final String name;
+        private final String description;
+
+        IndexedItem(String name, String description) {
+            this.name = name == null ? "" : name.toLowerCase(Locale.ROOT);
+            this.description = description == null ? "" : description.toLowerCase(Locale.ROOT);
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        boolean hasWordsStartingWith(List<String> prefixes) {
+            for (String prefix : prefixes) {
+                if (!hasWordStartingWith(name, prefix) && !hasWordStartingWith(description, prefix)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean hasWordStartingWith(String text, String prefix) {
+            for (int i = text.indexOf(prefix); i >= 0; i = text.indexOf(prefix, i + 1)) {
+                if (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Set<String> tokens() {
+            Set<String> tokens = new TreeSet<>(tokenize(name));
+            tokens.addAll(tokenize(description));
+            return tokens;
+        }
+    }
+}
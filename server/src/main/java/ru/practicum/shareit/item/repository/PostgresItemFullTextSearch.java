@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Component
+@Profile("!ci & !test")
+public class PostgresItemFullTextSearch implements ItemFullTextSearch {
+    private static final String SEARCH_QUERY = "SELECT i.id, i.name, i.description, i.is_available, i.owner_id, i.request_id " +
+            "FROM items i, to_tsquery('simple', :query) q " +
+            "WHERE i.is_available AND i.search_vector @@ q " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> searchAvailableItems(List<String> tokens, PageRequest pageRequest) {
+        String query = tokens.stream()
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+        return entityManager.createNativeQuery(SEARCH_QUERY, Item.class)
+                .setParameter("query", query)
+                .setFirstResult((int) pageRequest.getOffset())
+                .setMaxResults(pageRequest.getPageSize())
+                .getResultList();
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.exception.InvalidFieldException;
+import ru.practicum.shareit.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.AvailabilityIntervalDto;
+import ru.practicum.shareit.item.ItemAvailabilityDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Календарь занятости вещи. Бронирования WAITING и APPROVED, пересекающие окно, выбираются одним запросом по диапазону,
+ * отсортированными по началу, и сливаются за один проход. Результат кэшируется под меткой вещи,
+ * которую BookingServiceImpl увеличивает при каждом изменении ее бронирований, поэтому устаревшие записи больше не читаются.
+ * Бронирования, удаленные каскадом вместе с вещью, сбрасывают ее метку из ItemServiceImpl, а вместе с пользователем —
+ * метки вещей из его события.
+ */
+@Service
+public class ItemAvailabilityService {
+    private static final List<Status> BLOCKING_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final int STAMP_STRIPES = 1024;
+
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final Cache<List<Object>, ItemAvailabilityDto> cache;
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    public ItemAvailabilityService(ItemRepository itemRepository, BookingRepository bookingRepository, MeterRegistry meterRegistry,
+                                   @Value("${shareit.cache.availability.maximum-size:10000}") long maximumSize,
+                                   @Value("${shareit.cache.availability.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "availability");
+    }
+
+    public ItemAvailabilityDto getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new InvalidFieldException("Начало периода должно быть раньше его окончания.");
+        }
+        itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException(itemId));
+        List<Object> key = List.of(itemId, stamps.get(stripe(itemId)), from, to);
+        return cache.get(key, k -> load(itemId, from, to));
+    }
+
+    public void onBookingChanged(long itemId) {
+        stamps.incrementAndGet(stripe(itemId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        event.getItemIds().forEach(this::onBookingChanged);
+    }
+
+    private ItemAvailabilityDto load(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<AvailabilityIntervalDto> intervals = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        LocalDateTime busyStart = null;
+        LocalDateTime busyEnd = null;
+        for (Object[] period : bookingRepository.findPeriodsByItemIdBetween(itemId, BLOCKING_STATUSES, from, to)) {
+            LocalDateTime start = max((LocalDateTime) period[0], from);
+            LocalDateTime end = min((LocalDateTime) period[1], to);
+            if (busyEnd != null && !start.isAfter(busyEnd)) {
+                busyEnd = max(busyEnd, end);
+                continue;
+            }
+            if (busyEnd != null) {
+                freeFrom = addBusy(intervals, freeFrom, busyStart, busyEnd);
+            }
+            busyStart = start;
+            busyEnd = end;
+        }
+        if (busyEnd != null) {
+            freeFrom = addBusy(intervals, freeFrom, busyStart, busyEnd);
+        }
+        if (freeFrom.isBefore(to)) {
+            intervals.add(new AvailabilityIntervalDto(freeFrom, to, true));
+        }
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .intervals(intervals)
+                .build();
+    }
+
+    private static LocalDateTime addBusy(List<AvailabilityIntervalDto> intervals, LocalDateTime freeFrom,
+                                         LocalDateTime busyStart, LocalDateTime busyEnd) {
+        if (freeFrom.isBefore(busyStart)) {
+            intervals.add(new AvailabilityIntervalDto(freeFrom, busyStart, true));
+        }
+        intervals.add(new AvailabilityIntervalDto(busyStart, busyEnd, false));
+        return busyEnd;
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    private static int stripe(long itemId) {
+        return (int) Math.floorMod(itemId, (long) STAMP_STRIPES);
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.InvalidFieldException;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemImportResult;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковый импорт вещей из NDJSON: строки читаются по одной, проверяются и сохраняются пакетами фиксированного размера,
+ * каждый пакет — в отдельной транзакции. Результаты пакета, включая ошибки проверки, пишутся в ответ в порядке строк
+ * сразу после его сохранения. Проверка повторяет шлюз, потому что эндпоинт можно вызвать и напрямую.
+ */
+@Service
+@Slf4j
+public class ItemImportService {
+    private static final byte[] LINE_SEPARATOR = "\n".getBytes(StandardCharsets.UTF_8);
+    private static final int MAX_NAME_LENGTH = 30;
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ItemImportService(ItemService itemService, UserService userService, ObjectMapper objectMapper,
+                             @Value("${shareit.items.import.batch-size:100}") int batchSize) {
+        this.itemService = itemService;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    public StreamingResponseBody importItems(long ownerId, InputStream body) {
+        userService.getById(ownerId);
+        return out -> {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            // результаты всех строк пакета по порядку; для строк к сохранению id проставляется после сохранения
+            List<ItemImportResult> results = new ArrayList<>(batchSize);
+            List<Integer> itemPositions = new ArrayList<>(batchSize);
+            List<ItemDto> itemDtos = new ArrayList<>(batchSize);
+            long lineNumber = 0;
+            long imported = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                ItemImportResult result = ItemImportResult.builder().line(lineNumber).build();
+                try {
+                    ItemDto itemDto = objectMapper.readValue(line, ItemDto.class);
+                    validate(itemDto);
+                    itemPositions.add(results.size());
+                    itemDtos.add(itemDto);
+                } catch (JsonProcessingException e) {
+                    result.setError("Строка не является корректным JSON.");
+                } catch (InvalidFieldException e) {
+                    result.setError(e.getMessage());
+                }
+                results.add(result);
+                if (results.size() == batchSize) {
+                    imported += saveBatch(ownerId, results, itemPositions, itemDtos, out);
+                }
+            }
+            if (!results.isEmpty()) {
+                imported += saveBatch(ownerId, results, itemPositions, itemDtos, out);
+            }
+            out.flush();
+            log.info("Импорт вещей пользователя с id = {} завершен: сохранено {} из {} строк.", ownerId, imported, lineNumber);
+        };
+    }
+
+    private int saveBatch(long ownerId, List<ItemImportResult> results, List<Integer> itemPositions, List<ItemDto> itemDtos,
+                          OutputStream out) throws IOException {
+        int saved = 0;
+        if (!itemDtos.isEmpty()) {
+            try {
+                List<ItemDto> savedItems = itemService.createAll(ownerId, itemDtos);
+                for (int i = 0; i < savedItems.size(); i++) {
+                    results.get(itemPositions.get(i)).setId(savedItems.get(i).getId());
+                }
+                saved = savedItems.size();
+            } catch (DataAccessException e) {
+                // пакет откатился целиком — сохраняем строки по одной, чтобы найти ошибочные
+                log.warn("Пакет импорта вещей не сохранен, повтор по одной строке: {}", e.getMessage());
+                for (int i = 0; i < itemDtos.size(); i++) {
+                    saved += saveOne(ownerId, itemDtos.get(i), results.get(itemPositions.get(i)));
+                }
+            }
+        }
+        for (ItemImportResult result : results) {
+            write(out, result);
+        }
+        out.flush();
+        results.clear();
+        itemPositions.clear();
+        itemDtos.clear();
+        return saved;
+    }
+
+    private int saveOne(long ownerId, ItemDto itemDto, ItemImportResult result) {
+        try {
+            result.setId(itemService.createAll(ownerId, List.of(itemDto)).get(0).getId());
+            return 1;
+        } catch (DataAccessException e) {
+            result.setError("Вещь не сохранена: данные не прошли проверку базы.");
+            return 0;
+        }
+    }
+
+    private void validate(ItemDto itemDto) {
+        String name = itemDto.getName();
+        if (name == null || name.isBlank()) {
+            throw new InvalidFieldException("Ошибка валидации. Имя вещи не может быть пустым.");
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new InvalidFieldException("Ошибка валидации. Имя вещи не может быть длиннее " + MAX_NAME_LENGTH + " символов.");
+        }
+        String description = itemDto.getDescription();
+        if (description == null || description.isBlank()) {
+            throw new InvalidFieldException("Ошибка валидации. Описание вещи не может быть пустым.");
+        }
+        if (description.length() > MAX_DESCRIPTION_LENGTH) {
+            throw new InvalidFieldException("Ошибка валидации. Описание вещи не может быть длиннее " + MAX_DESCRIPTION_LENGTH + " символов.");
+        }
+        if (itemDto.getAvailable() == null) {
+            throw new InvalidFieldException("Ошибка валидации. Необходимо указать доступность вещи.");
+        }
+    }
+
+    private void write(OutputStream out, ItemImportResult result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write(LINE_SEPARATOR);
+    }
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.ItemSearchMode;
 import ru.practicum.shareit.item.comment.CommentDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemService {
@@ -10,15 +13,26 @@ public interface ItemService {
 
     ItemDto getById(long userId, long itemId);
 
+    /**
+     * Вещь для ссылок из других сущностей: только поля самой вещи, без бронирований и комментариев.
+     */
+    Item getReferenceById(long itemId);
+
+    List<Item> getReferencesByIds(Collection<Long> itemIds);
+
     ItemDto create(long ownerId, ItemDto itemDto);
 
+    List<ItemDto> createAll(long ownerId, List<ItemDto> itemDtos);
+
     ItemDto update(long ownerId, ItemDto itemDto);
 
     void deleteItem(long ownerId, ItemDto itemDto);
 
     void deleteById(long ownerId, long itemId);
 
-    List<ItemDto> searchItemsByText(String text, int from, int size);
+    List<ItemDto> searchItemsByText(String text, ItemSearchMode mode, int from, int size);
+
+    List<CommentDto> getComments(long itemId, int from, int size);
 
     CommentDto addComment(long userId, long itemId, CommentDto commentDto);
 }
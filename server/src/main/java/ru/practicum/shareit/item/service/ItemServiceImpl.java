@@ -2,29 +2,31 @@ package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.Booking;
-import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.enums.Status;
 import ru.practicum.shareit.exception.CommentCreationException;
 import ru.practicum.shareit.exception.ItemNotFoundException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemDto;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.ItemSearchMode;
 import ru.practicum.shareit.item.comment.Comment;
 import ru.practicum.shareit.item.comment.CommentDto;
 import ru.practicum.shareit.item.comment.CommentMapper;
 import ru.practicum.shareit.item.comment.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemNgramIndex;
+import ru.practicum.shareit.item.repository.ItemReadModel;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.ItemSearchIndex;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,46 +35,90 @@ public class ItemServiceImpl implements ItemService {
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
-
-    public ItemServiceImpl(ItemRepository itemRepository, UserService userService, BookingRepository bookingRepository, CommentRepository commentRepository) {
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemNgramIndex itemNgramIndex;
+    private final ItemReadModel itemReadModel;
+    private final ItemAvailabilityService itemAvailabilityService;
+
+    public ItemServiceImpl(ItemRepository itemRepository, UserService userService, BookingRepository bookingRepository, CommentRepository commentRepository,
+                           ItemSearchIndex itemSearchIndex, ItemNgramIndex itemNgramIndex, ItemReadModel itemReadModel,
+                           ItemAvailabilityService itemAvailabilityService) {
         this.itemRepository = itemRepository;
         this.userService = userService;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemNgramIndex = itemNgramIndex;
+        this.itemReadModel = itemReadModel;
+        this.itemAvailabilityService = itemAvailabilityService;
     }
 
     @Override
     public List<ItemDto> getAllByOwnerId(long ownerId, int from, int size) {
-        return itemRepository.findAllByOwnerId(ownerId, PageRequest.of(from, size)).stream()
-                .map(ItemMapper::toItemDto)
-                .sorted(Comparator.comparing(ItemDto::getId))
-                .peek(itemDto -> setLastAndNextBookings(itemDto.getId(), itemDto))
-                .collect(Collectors.toList());
+        List<ItemDto> itemDtos = itemReadModel.getAll(itemRepository.findAllByOwnerId(ownerId, PageRequest.of(from, size)));
+        itemDtos.sort(Comparator.comparing(ItemDto::getId));
+        itemDtos.forEach(itemDto -> itemDto.setComments(null));
+        return itemDtos;
     }
 
     @Override
     public ItemDto getById(long userId, long itemId) {
-        Optional<Item> item = itemRepository.findById(itemId);
-        ItemDto itemDto = ItemMapper.toItemDto(item.orElseThrow(() -> new ItemNotFoundException(itemId)));
-        if (userId == itemDto.getOwnerId()) {
-            setLastAndNextBookings(itemId, itemDto);
-        } else {
+        ItemDto itemDto = itemReadModel.get(itemId).orElseThrow(() -> new ItemNotFoundException(itemId));
+        if (userId != itemDto.getOwnerId()) {
             itemDto.setLastBooking(null);
             itemDto.setNextBooking(null);
         }
-
-        List<CommentDto> commentDtos = commentRepository.findAllByItemIdOrderByCreatedDesc(itemId).stream()
-                .map(CommentMapper::toCommentDto)
-                .collect(Collectors.toList());
-        itemDto.setComments(commentDtos);
         return itemDto;
     }
 
+    @Override
+    public List<CommentDto> getComments(long itemId, int from, int size) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException(itemId);
+        }
+        return commentRepository.findCommentDtosByItemId(itemId, PageRequest.of(from / size, size));
+    }
+
+    @Override
+    public Item getReferenceById(long itemId) {
+        // из базы через второй уровень кэша: представление вещи может пережить ее каскадное удаление
+        return itemRepository.findById(itemId).orElseThrow(() -> new ItemNotFoundException(itemId));
+    }
+
+    @Override
+    public List<Item> getReferencesByIds(Collection<Long> itemIds) {
+        return itemRepository.findAllById(itemIds);
+    }
+
     @Override
     public ItemDto create(long ownerId, ItemDto itemDto) {
         userService.getById(ownerId);
-        Item item = ItemMapper.toItem(itemDto);
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item item = itemRepository.save(ItemMapper.toItem(itemDto));
+        itemSearchIndex.put(item);
+        itemNgramIndex.put(item);
+        itemReadModel.onItemCreated(item);
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Override
+    public List<ItemDto> createAll(long ownerId, List<ItemDto> itemDtos) {
+        userService.getById(ownerId);
+        List<Item> items = itemDtos.stream()
+                .map(ItemMapper::toItem)
+                .peek(item -> {
+                    item.setId(null);
+                    item.setOwnerId(ownerId);
+                })
+                .collect(Collectors.toList());
+        List<Item> savedItems = itemRepository.saveAll(items);
+        savedItems.forEach(item -> {
+            itemSearchIndex.put(item);
+            itemNgramIndex.put(item);
+            itemReadModel.onItemCreated(item);
+        });
+        return savedItems.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -89,34 +135,52 @@ public class ItemServiceImpl implements ItemService {
                 .findFirst()
                 .orElseThrow(() -> new ItemNotFoundException("У пользователя с id = " + ownerId + " нет данной вещи."));
         merge(oldItem, newItem);
-        return ItemMapper.toItemDto(itemRepository.save(oldItem));
+        Item item = itemRepository.save(oldItem);
+        itemSearchIndex.put(item);
+        itemNgramIndex.put(item);
+        itemReadModel.onItemChanged(item.getId());
+        return ItemMapper.toItemDto(item);
     }
 
     @Override
     public void deleteItem(long ownerId, ItemDto itemDto) {
         userService.getById(ownerId);
         itemRepository.delete(ItemMapper.toItem(itemDto));
+        if (itemDto.getId() != null) {
+            itemSearchIndex.remove(itemDto.getId());
+            itemNgramIndex.remove(itemDto.getId());
+            itemReadModel.onItemChanged(itemDto.getId());
+            itemAvailabilityService.onBookingChanged(itemDto.getId());
+        }
     }
 
     @Override
     public void deleteById(long ownerId, long itemId) {
         userService.getById(ownerId);
         itemRepository.deleteById(itemId);
+        itemSearchIndex.remove(itemId);
+        itemNgramIndex.remove(itemId);
+        itemReadModel.onItemChanged(itemId);
+        itemAvailabilityService.onBookingChanged(itemId);
     }
 
     @Override
-    public List<ItemDto> searchItemsByText(String text, int from, int size) {
+    public List<ItemDto> searchItemsByText(String text, ItemSearchMode mode, int from, int size) {
         if (text.isBlank()) {
             return new ArrayList<>();
         }
-        return itemRepository.searchItemsByText(text.toLowerCase(), PageRequest.of(from, size)).stream()
+        List<Item> items = mode == ItemSearchMode.FUZZY
+                ? itemRepository.fuzzySearchItemsByText(text.toLowerCase(), PageRequest.of(from / size, size))
+                : itemRepository.searchItemsByText(text.toLowerCase(), PageRequest.of(from / size, size));
+        return items.stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     public CommentDto addComment(long userId, long itemId, CommentDto commentDto) {
-        LocalDateTime now = LocalDateTime.now();
+        // база хранит время с точностью до микросекунд: так комментарий в представлении совпадает с перечитанным из базы
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
         UserDto userDto = userService.getById(userId);
         commentDto.setCreated(now);
         commentDto.setAuthorName(userDto.getName());
@@ -133,7 +197,10 @@ public class ItemServiceImpl implements ItemService {
                 CommentMapper.toComment(commentDto, userDto, getById(userId, itemId))
         );
 
-        return CommentMapper.toCommentDto(comment);
+        CommentDto savedCommentDto = CommentMapper.toCommentDto(comment);
+        savedCommentDto.setItemId(itemId);
+        itemReadModel.onCommentAdded(itemId, savedCommentDto);
+        return savedCommentDto;
     }
 
     private void merge(Item oldItem, Item newItem) {
@@ -151,22 +218,4 @@ public class ItemServiceImpl implements ItemService {
             oldItem.setAvailable(available);
         }
     }
-
-    private void setLastAndNextBookings(long itemId, ItemDto itemDto) {
-        LocalDateTime now = LocalDateTime.now();
-        Booking lastBooking = bookingRepository.findFirstBookingByItem_IdAndStatusAndStartBeforeOrderByEndDesc(itemId, Status.APPROVED, now);
-        Booking nextBooking = bookingRepository.findFirstBookingByItem_IdAndStatusAndStartAfterOrderByStartAsc(itemId, Status.APPROVED, now);
-
-        if (lastBooking == null) {
-            itemDto.setLastBooking(null);
-        } else {
-            itemDto.setLastBooking(BookingMapper.toBookingDto(lastBooking));
-        }
-
-        if (nextBooking == null) {
-            itemDto.setNextBooking(null);
-        } else {
-            itemDto.setNextBooking(BookingMapper.toBookingDto(nextBooking));
-        }
-    }
 }
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+
+/**
+ * Оборачивает соединения так, чтобы каждое выполнение Statement и каждая прочитанная строка ResultSet
+ * учитывались в {@link SqlStatistics} текущего запроса.
+ */
+public class CountingDataSource extends DelegatingDataSource {
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final Set<String> STATEMENT_FACTORY_METHODS = Set.of("createStatement", "prepareStatement", "prepareCall");
+
+    public CountingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, super.getConnection(username, password));
+    }
+
+    private static <T> T wrap(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(target, method, args);
+            String name = method.getName();
+            if (target instanceof Connection && STATEMENT_FACTORY_METHODS.contains(name)) {
+                return wrapAs(method.getReturnType(), result);
+            }
+            if (target instanceof Statement) {
+                if (EXECUTE_METHODS.contains(name)) {
+                    SqlStatistics.statementExecuted();
+                }
+                if (result instanceof ResultSet && !"getGeneratedKeys".equals(name)) {
+                    return wrap(ResultSet.class, (ResultSet) result);
+                }
+            }
+            if (target instanceof ResultSet && "next".equals(name) && Boolean.TRUE.equals(result)) {
+                SqlStatistics.rowRead();
+            }
+            return result;
+        };
+        return type.cast(Proxy.newProxyInstance(CountingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T wrapAs(Class<T> type, Object target) {
+        return wrap(type, (T) target);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
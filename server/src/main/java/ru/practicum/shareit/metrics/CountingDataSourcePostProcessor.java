@@ -0,0 +1,18 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+@Component
+public class CountingDataSourcePostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof CountingDataSource)) {
+            return new CountingDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.enums.State;
+
+import java.util.Arrays;
+
+/**
+ * Таймер shareit.service на каждый публичный метод сервисов.
+ * Для выборок бронирований тег state содержит запрошенное состояние, для остальных методов — none.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    private static final String METRIC_NAME = "shareit.service";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * ru.practicum.shareit..service.*Service.*(..))")
+    public Object timeServiceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .tag("class", signature.getDeclaringType().getSimpleName())
+                    .tag("method", signature.getName())
+                    .tag("state", stateTag(signature.getParameterNames(), joinPoint.getArgs()))
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String stateTag(String[] parameterNames, Object[] args) {
+        int index = parameterNames == null ? -1 : Arrays.asList(parameterNames).indexOf("state");
+        if (index < 0) {
+            return NONE;
+        }
+        try {
+            return State.valueOf(String.valueOf(args[index]).toUpperCase()).name();
+        } catch (IllegalArgumentException e) {
+            return "UNSUPPORTED";
+        }
+    }
+}
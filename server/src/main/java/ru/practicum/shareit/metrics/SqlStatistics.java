@@ -0,0 +1,50 @@
+package ru.practicum.shareit.metrics;
+
+/**
+ * Счетчики SQL-запросов и прочитанных строк в рамках одного HTTP-запроса.
+ */
+public final class SqlStatistics {
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long rows;
+
+    private SqlStatistics() {
+    }
+
+    public static SqlStatistics start() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    public static SqlStatistics current() {
+        return CURRENT.get();
+    }
+
+    public static void stop() {
+        CURRENT.remove();
+    }
+
+    static void statementExecuted() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    static void rowRead() {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.rows++;
+        }
+    }
+
+    public long getStatements() {
+        return statements;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+}
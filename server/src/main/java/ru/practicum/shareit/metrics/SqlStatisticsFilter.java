@@ -0,0 +1,58 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Считает SQL-запросы и строки на каждый HTTP-запрос, публикует их как метрики shareit.sql.statements
+ * и shareit.sql.rows и предупреждает в логе, если эндпоинт превысил бюджет запросов.
+ */
+@Slf4j
+@Component
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final long statementBudget;
+
+    public SqlStatisticsFilter(MeterRegistry meterRegistry,
+                               @Value("${shareit.sql.statement-budget:10}") long statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            SqlStatistics.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            summary("shareit.sql.statements", request.getMethod(), uri).record(statistics.getStatements());
+            summary("shareit.sql.rows", request.getMethod(), uri).record(statistics.getRows());
+            if (statistics.getStatements() > statementBudget) {
+                log.warn("Эндпоинт {} {} выполнил {} SQL-запросов (прочитано строк: {}) при бюджете {}",
+                        request.getMethod(), uri, statistics.getStatements(), statistics.getRows(), statementBudget);
+            }
+        }
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+}
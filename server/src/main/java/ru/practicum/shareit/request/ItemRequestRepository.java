@@ -2,15 +2,19 @@ package ru.practicum.shareit.request;
 
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<ItemRequest> findAllByRequestorId(long requestorId);
 
     int countItemRequestById(long requestId);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<ItemRequest> findAllByIdNotOrderByCreatedDesc(long userId, PageRequest pageRequest);
 }
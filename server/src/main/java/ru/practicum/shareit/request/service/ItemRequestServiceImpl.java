@@ -13,8 +13,10 @@ import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -44,11 +46,12 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestDto> getAllRequests(long userId) {
         userService.getById(userId);
-        return itemRequestRepository.findAllByRequestorId(userId).stream()
+        List<ItemRequestDto> itemRequestDtos = itemRequestRepository.findAllByRequestorId(userId).stream()
                 .map(ItemRequestMapper::toItemRequestDto)
                 .sorted(Comparator.comparing(ItemRequestDto::getCreated))
-                .peek(this::setRequestItems)
                 .collect(Collectors.toList());
+        setRequestItems(itemRequestDtos);
+        return itemRequestDtos;
     }
 
     @Override
@@ -56,7 +59,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         userService.getById(userId);
 
         ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequestRepository.findById(requestId).orElseThrow(() -> new ItemRequestNotFoundException(requestId)));
-        setRequestItems(itemRequestDto);
+        setRequestItems(List.of(itemRequestDto));
 
         return itemRequestDto;
     }
@@ -64,17 +67,25 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestDto> getAllItemRequestsByOtherRequestors(long userId, int from, int size) {
         userService.getById(userId);
-        return itemRequestRepository.findAllByIdNotOrderByCreatedDesc(userId, PageRequest.of(from, size)).stream()
+        List<ItemRequestDto> itemRequestDtos = itemRequestRepository.findAllByIdNotOrderByCreatedDesc(userId, PageRequest.of(from, size)).stream()
                 .map(ItemRequestMapper::toItemRequestDto)
-                .peek(this::setRequestItems)
                 .collect(Collectors.toList());
+        setRequestItems(itemRequestDtos);
+        return itemRequestDtos;
     }
 
-    private void setRequestItems(ItemRequestDto itemRequestDto) {
-        List<ItemDto> itemDtos = itemRepository.findAllByRequestId(itemRequestDto.getId()).stream()
-                .map(ItemMapper::toItemDto)
+    private void setRequestItems(List<ItemRequestDto> itemRequestDtos) {
+        if (itemRequestDtos.isEmpty()) {
+            return;
+        }
+        List<Long> requestIds = itemRequestDtos.stream()
+                .map(ItemRequestDto::getId)
                 .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequestId = itemRepository.findAllByRequestIdIn(requestIds).stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
 
-        itemRequestDto.setItems(itemDtos);
+        itemRequestDtos.forEach(itemRequestDto ->
+                itemRequestDto.setItems(itemsByRequestId.getOrDefault(itemRequestDto.getId(), new ArrayList<>())));
     }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.user;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Set;
+
+/**
+ * Пользователь удален. itemIds — вещи, удаленные или измененные каскадом: его собственные, созданные по его запросам,
+ * забронированные и прокомментированные им. Собираются до удаления, пока строки еще есть в базе.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@AllArgsConstructor
+@Getter
+public class UserDeletedEvent {
+    long userId;
+    Set<Long> itemIds;
+}
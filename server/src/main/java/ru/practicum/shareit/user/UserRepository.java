@@ -1,9 +1,18 @@
 package ru.practicum.shareit.user;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    @Query(value = "SELECT id FROM items WHERE owner_id = :userId " +
+            "UNION SELECT i.id FROM items i JOIN requests r ON r.id = i.request_id WHERE r.requestor_id = :userId " +
+            "UNION SELECT item_id FROM bookings WHERE booker_id = :userId " +
+            "UNION SELECT item_id FROM comments WHERE author_id = :userId", nativeQuery = true)
+    List<Number> findRelatedItemIds(@Param("userId") long userId);
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.user;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Set;
+
+/**
+ * Пользователь изменен. itemIds — вещи, в данных которых может быть его имя: забронированные и прокомментированные им.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@AllArgsConstructor
+@Getter
+public class UserUpdatedEvent {
+    long userId;
+    Set<Long> itemIds;
+}
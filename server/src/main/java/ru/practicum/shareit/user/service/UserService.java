@@ -1,5 +1,6 @@
 package ru.practicum.shareit.user.service;
 
+import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserDto;
 
 import java.util.List;
@@ -9,6 +10,12 @@ public interface UserService {
 
     UserDto getById(long userId);
 
+    /**
+     * Пользователь для ссылок из других сущностей: загружается через userRepository.findById, то есть из базы
+     * или второго уровня кэша Hibernate, без преобразования через DTO. Если пользователя нет — UserNotFoundException.
+     */
+    User getReferenceById(long userId);
+
     UserDto create(UserDto userDto);
 
     UserDto update(UserDto userDto);
@@ -1,22 +1,50 @@
 package ru.practicum.shareit.user.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.UserNotFoundException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserDeletedEvent;
 import ru.practicum.shareit.user.UserDto;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserUpdatedEvent;
 
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final Cache<Long, Optional<User>> userCache;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, MeterRegistry meterRegistry, EntityManagerFactory entityManagerFactory,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${shareit.cache.users.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.cache.users.expire-after-write:5m}") Duration expireAfterWrite) {
         this.userRepository = userRepository;
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "users");
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -28,14 +56,21 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public UserDto getById(long userId) {
-        Optional<User> user = userRepository.findById(userId);
+        Optional<User> user = userCache.get(userId, userRepository::findById);
         return UserMapper.toUserDto(user.orElseThrow(() -> new UserNotFoundException(userId)));
     }
 
+    @Override
+    public User getReferenceById(long userId) {
+        // из базы через второй уровень кэша, а не копия из userCache: ссылка уходит во внешний ключ бронирования
+        return userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
+    }
+
     @Override
     public UserDto create(UserDto userDto) {
         User userFromDto = UserMapper.toUser(userDto);
         User user = userRepository.save(userFromDto);
+        userCache.invalidate(user.getId());
         return UserMapper.toUserDto(user);
     }
 
@@ -49,18 +84,46 @@ public class UserServiceImpl implements UserService {
         User oldUser = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException(userId));
         merge(oldUser, newUser);
         userRepository.save(oldUser);
+        userCache.invalidate(userId);
+        eventPublisher.publishEvent(new UserUpdatedEvent(userId, findRelatedItemIds(userId)));
         return UserMapper.toUserDto(oldUser);
     }
 
     @Override
     public void delete(UserDto userDto) {
         User user = UserMapper.toUser(userDto);
+        Set<Long> itemIds = user.getId() == null ? Set.of() : findRelatedItemIds(user.getId());
         userRepository.delete(user);
+        if (user.getId() != null) {
+            userCache.invalidate(user.getId());
+            evictCascadedEntities(itemIds);
+            eventPublisher.publishEvent(new UserDeletedEvent(user.getId(), itemIds));
+        }
     }
 
     @Override
     public void deleteById(long userId) {
+        Set<Long> itemIds = findRelatedItemIds(userId);
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
+        evictCascadedEntities(itemIds);
+        eventPublisher.publishEvent(new UserDeletedEvent(userId, itemIds));
+    }
+
+    /**
+     * Запросы, вещи, бронирования и комментарии пользователя удаляются каскадом в базе в обход Hibernate,
+     * поэтому из второго уровня кэша убираются затронутые вещи, а регион запросов и кэш запросов сбрасываются целиком.
+     */
+    private void evictCascadedEntities(Set<Long> itemIds) {
+        entityManagerFactory.getCache().evict(ItemRequest.class);
+        itemIds.forEach(itemId -> entityManagerFactory.getCache().evict(Item.class, itemId));
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    private Set<Long> findRelatedItemIds(long userId) {
+        return userRepository.findRelatedItemIds(userId).stream()
+                .map(Number::longValue)
+                .collect(Collectors.toSet());
     }
 
     private void merge(User oldUser, User newUser) {
@@ -1,15 +1,24 @@
 DROP TABLE IF EXISTS users, items, bookings, comments, requests;
+DROP SEQUENCE IF EXISTS users_id_seq;
+DROP SEQUENCE IF EXISTS requests_id_seq;
+DROP SEQUENCE IF EXISTS items_id_seq;
+DROP SEQUENCE IF EXISTS comments_id_seq;
+DROP SEQUENCE IF EXISTS bookings_id_seq;
+
+CREATE SEQUENCE IF NOT EXISTS users_id_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     name VARCHAR(30) NOT NULL,
     email VARCHAR(100) NOT NULL,
     CONSTRAINT users_pk PRIMARY KEY (id),
     CONSTRAINT unique_email UNIQUE (email)
 );
 
+CREATE SEQUENCE IF NOT EXISTS requests_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     description VARCHAR(500) NOT NULL,
     requestor_id BIGINT NOT NULL,
     created_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -17,8 +26,10 @@ CREATE TABLE IF NOT EXISTS requests (
     CONSTRAINT requestors_fk FOREIGN KEY (requestor_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+CREATE SEQUENCE IF NOT EXISTS items_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     name VARCHAR(30) NOT NULL,
     description VARCHAR(500) NOT NULL,
     is_available BOOLEAN NOT NULL,
@@ -29,8 +40,14 @@ CREATE TABLE IF NOT EXISTS items (
     CONSTRAINT items_request_fk FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS items_request_id_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id);
+
+CREATE SEQUENCE IF NOT EXISTS comments_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     text VARCHAR(500) NOT NULL,
     item_id BIGINT NOT NULL,
     author_id BIGINT NOT NULL,
@@ -40,14 +57,30 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT users_comment_fk FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS comments_author_id_idx ON comments (author_id);
+
+CREATE SEQUENCE IF NOT EXISTS bookings_id_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id BIGINT NOT NULL,
     booker_id BIGINT NOT NULL,
+    item_owner_id BIGINT NOT NULL,
     status VARCHAR(30) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     CONSTRAINT bookings_pk PRIMARY KEY (id),
     CONSTRAINT items_booking_fk FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
     CONSTRAINT users_booking_fk FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_owner_start_idx ON bookings (item_owner_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_start_idx ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_period_idx ON bookings (item_id, start_date, end_date, status);
@@ -0,0 +1,58 @@
+package ru.practicum.shareit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingInputDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Общий контекст интеграционных тестов и создание данных через сервисы. Контекст и база общие для всех тестов,
+ * поэтому каждый тест заводит собственных пользователей с уникальной почтой.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public abstract class IntegrationTestBase {
+    @Autowired
+    protected UserService userService;
+    @Autowired
+    protected ItemService itemService;
+    @Autowired
+    protected BookingService bookingService;
+
+    protected long createUser() {
+        String name = UUID.randomUUID().toString().substring(0, 8);
+        return userService.create(UserDto.builder()
+                .name(name)
+                .email(name + "@test.ru")
+                .build()).getId();
+    }
+
+    protected long createItem(long ownerId) {
+        return createItem(ownerId, "Дрель", "Простая дрель");
+    }
+
+    protected long createItem(long ownerId, String name, String description) {
+        return itemService.create(ownerId, ItemDto.builder()
+                .name(name)
+                .description(description)
+                .available(true)
+                .ownerId(ownerId)
+                .build()).getId();
+    }
+
+    protected static BookingInputDto booking(long itemId, LocalDateTime start, LocalDateTime end) {
+        return BookingInputDto.builder()
+                .itemId(itemId)
+                .start(start)
+                .end(end)
+                .build();
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.IntegrationTestBase;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.exception.InvalidFieldException;
+import ru.practicum.shareit.exception.ItemNotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingIntervalIndexTest extends IntegrationTestBase {
+    private static final LocalDateTime START = LocalDateTime.of(2040, 1, 10, 12, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private long ownerId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        itemId = createItem(ownerId);
+    }
+
+    @Test
+    void rejectsOverlappingBookingAndSuggestsNextFreeStart() {
+        long bookerId = createUser();
+        bookingService.createBooking(bookerId, booking(itemId, START, START.plusDays(2)));
+        bookingService.createBooking(bookerId, booking(itemId, START.plusDays(3), START.plusDays(4)));
+
+        assertThatThrownBy(() -> bookingService.createBooking(bookerId, booking(itemId, START.plusDays(1), START.plusDays(3))))
+                .isInstanceOf(InvalidFieldException.class)
+                .hasMessageContaining(START.plusDays(4).toString());
+    }
+
+    @Test
+    void acceptsAdjacentBookingsAndReleasesRejectedInterval() {
+        long bookerId = createUser();
+        long rejectedId = bookingService.createBooking(bookerId, booking(itemId, START, START.plusDays(1))).getId();
+        bookingService.createBooking(bookerId, booking(itemId, START.plusDays(1), START.plusDays(2)));
+
+        bookingService.approveOrRejectBooking(rejectedId, ownerId, false);
+
+        assertThat(bookingService.createBooking(createUser(), booking(itemId, START, START.plusDays(1))).getId()).isNotNull();
+    }
+
+    @Test
+    void acceptsBookingOfDatesFreedByCascadeDeleteOfBooker() {
+        long deletedBookerId = createUser();
+        bookingService.createBooking(deletedBookerId, booking(itemId, START, START.plusDays(2)));
+        userService.deleteById(deletedBookerId);
+
+        assertThat(bookingService.createBooking(createUser(), booking(itemId, START, START.plusDays(2))).getId()).isNotNull();
+        assertThat(bookingService.createBookings(createUser(), List.of(booking(itemId, START.plusDays(2), START.plusDays(3)))))
+                .hasSize(1);
+    }
+
+    @Test
+    void rejectsBookingInsideOverlappingBookingsSavedBeforeTheIndex() {
+        long bookerId = createUser();
+        saveDirectly(bookerId, START.plusDays(1), START.plusDays(10));
+        saveDirectly(bookerId, START.plusDays(2), START.plusDays(3));
+        saveDirectly(bookerId, START.plusDays(12), START.plusDays(13));
+        saveDirectly(bookerId, START.plusDays(12), START.plusDays(14));
+
+        assertThatThrownBy(() -> bookingService.createBooking(bookerId, booking(itemId, START.plusDays(5), START.plusDays(6))))
+                .isInstanceOf(InvalidFieldException.class)
+                .hasMessageContaining(START.plusDays(10).toString());
+        assertThatThrownBy(() -> bookingService.createBooking(bookerId, booking(itemId, START.plusDays(13), START.plusDays(14))))
+                .isInstanceOf(InvalidFieldException.class);
+        assertThat(bookingService.createBooking(bookerId, booking(itemId, START.plusDays(10), START.plusDays(12))).getId()).isNotNull();
+    }
+
+    @Test
+    void rejectsBookingOfItemDeletedWithOwner() {
+        long bookerId = createUser();
+        itemService.getById(bookerId, itemId);
+        userService.deleteById(ownerId);
+
+        assertThatThrownBy(() -> bookingService.createBooking(bookerId, booking(itemId, START, START.plusDays(1))))
+                .isInstanceOf(ItemNotFoundException.class);
+        assertThatThrownBy(() -> bookingService.createBookings(bookerId, List.of(booking(itemId, START, START.plusDays(1)))))
+                .isInstanceOf(ItemNotFoundException.class);
+    }
+
+    private void saveDirectly(long bookerId, LocalDateTime start, LocalDateTime end) {
+        bookingRepository.save(Booking.builder()
+                .item(itemService.getReferenceById(itemId))
+                .itemOwnerId(ownerId)
+                .booker(userService.getReferenceById(bookerId))
+                .start(start)
+                .end(end)
+                .status(Status.APPROVED)
+                .build());
+    }
+}
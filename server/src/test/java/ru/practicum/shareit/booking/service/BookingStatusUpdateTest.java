@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.IntegrationTestBase;
+import ru.practicum.shareit.booking.dto.BookingOutputDto;
+import ru.practicum.shareit.booking.enums.Status;
+import ru.practicum.shareit.exception.BookingNotFoundException;
+import ru.practicum.shareit.exception.InvalidFieldException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingStatusUpdateTest extends IntegrationTestBase {
+    private static final LocalDateTime START = LocalDateTime.of(2041, 3, 1, 12, 0);
+    private static final int THREADS = 8;
+
+    private long ownerId;
+    private long bookingId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        long itemId = createItem(ownerId, "Пила", "Ручная пила");
+        bookingId = bookingService.createBooking(createUser(), booking(itemId, START, START.plusDays(1))).getId();
+    }
+
+    @Test
+    void onlyOneOfConcurrentDecisionsIsApplied() throws Exception {
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<BookingOutputDto>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                boolean approved = i % 2 == 0;
+                Callable<BookingOutputDto> decision = () -> {
+                    ready.countDown();
+                    go.await();
+                    return bookingService.approveOrRejectBooking(bookingId, ownerId, approved);
+                };
+                futures.add(executor.submit(decision));
+            }
+            ready.await();
+            go.countDown();
+
+            List<BookingOutputDto> applied = new ArrayList<>();
+            for (Future<BookingOutputDto> future : futures) {
+                try {
+                    applied.add(future.get());
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(InvalidFieldException.class);
+                }
+            }
+
+            assertThat(applied).hasSize(1);
+            Status winner = applied.get(0).getStatus();
+            assertThat(winner).isIn(Status.APPROVED, Status.REJECTED);
+            assertThat(bookingService.getBookingByBookingId(bookingId, ownerId).getStatus()).isEqualTo(winner);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsRepeatedDecisionAndForeignOwner() {
+        long otherUserId = createUser();
+        assertThatThrownBy(() -> bookingService.approveOrRejectBooking(bookingId, otherUserId, true))
+                .isInstanceOf(BookingNotFoundException.class);
+
+        bookingService.approveOrRejectBooking(bookingId, ownerId, true);
+
+        assertThatThrownBy(() -> bookingService.approveOrRejectBooking(bookingId, ownerId, false))
+                .isInstanceOf(InvalidFieldException.class);
+        assertThat(bookingService.getBookingByBookingId(bookingId, ownerId).getStatus()).isEqualTo(Status.APPROVED);
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.IntegrationTestBase;
+import ru.practicum.shareit.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.ItemDto;
+import ru.practicum.shareit.item.comment.CommentDto;
+import ru.practicum.shareit.request.ItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.UserDto;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemReadModelTest extends IntegrationTestBase {
+    @Autowired
+    private ItemRequestService itemRequestService;
+    @Autowired
+    private ItemReadModel itemReadModel;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        bookerId = createUser();
+        itemId = createItem(ownerId);
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        long bookingId = bookingService.createBooking(bookerId, booking(itemId, start, start.plusDays(1))).getId();
+        bookingService.approveOrRejectBooking(bookingId, ownerId, true);
+        itemService.addComment(bookerId, itemId, CommentDto.builder().text("Отличная дрель").build());
+    }
+
+    @Test
+    void showsNewNameOfBookerAndCommentAuthorAfterRename() {
+        assertThat(itemService.getById(ownerId, itemId).getLastBooking().getBooker().getName()).isNotEqualTo("Новое имя");
+
+        userService.update(UserDto.builder().id(bookerId).name("Новое имя").build());
+
+        ItemDto itemDto = itemService.getById(ownerId, itemId);
+        assertThat(itemDto.getLastBooking().getBooker().getName()).isEqualTo("Новое имя");
+        assertThat(itemDto.getComments()).extracting(CommentDto::getAuthorName).containsExactly("Новое имя");
+    }
+
+    @Test
+    void dropsItemOfDeletedOwner() {
+        itemService.getById(ownerId, itemId);
+
+        userService.deleteById(ownerId);
+
+        assertThatThrownBy(() -> itemService.getById(bookerId, itemId)).isInstanceOf(ItemNotFoundException.class);
+    }
+
+    @Test
+    void dropsItemCreatedForRequestOfDeletedUser() {
+        long requestorId = createUser();
+        long requestId = itemRequestService.create(requestorId, ItemRequestDto.builder().description("Нужен перфоратор").build()).getId();
+        long answerId = itemService.create(ownerId, ItemDto.builder()
+                .name("Перфоратор")
+                .description("Перфоратор по запросу")
+                .available(true)
+                .ownerId(ownerId)
+                .requestId(requestId)
+                .build()).getId();
+        itemService.getById(ownerId, answerId);
+
+        userService.deleteById(requestorId);
+
+        assertThatThrownBy(() -> itemService.getById(ownerId, answerId)).isInstanceOf(ItemNotFoundException.class);
+        assertThat(itemService.getById(ownerId, itemId).getComments()).hasSize(1);
+    }
+
+    @Test
+    void dropsBookingsAndCommentsOfDeletedBooker() {
+        assertThat(itemService.getById(ownerId, itemId).getCommentCount()).isEqualTo(1);
+
+        userService.deleteById(bookerId);
+
+        ItemDto itemDto = itemService.getById(ownerId, itemId);
+        assertThat(itemDto.getLastBooking()).isNull();
+        assertThat(itemDto.getComments()).isEmpty();
+        assertThat(itemDto.getCommentCount()).isZero();
+    }
+
+    @Test
+    void commentBuiltInMemoryMatchesCommentReloadedFromDatabase() {
+        ItemDto inMemory = itemService.getById(ownerId, itemId);
+
+        itemReadModel.onItemChanged(itemId);
+        ItemDto reloaded = itemService.getById(ownerId, itemId);
+
+        assertThat(reloaded.getComments()).isEqualTo(inMemory.getComments());
+        assertThat(reloaded.getLastBooking()).isEqualTo(inMemory.getLastBooking());
+    }
+}
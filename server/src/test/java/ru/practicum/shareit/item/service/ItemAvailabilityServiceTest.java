@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.IntegrationTestBase;
+import ru.practicum.shareit.exception.ItemNotFoundException;
+import ru.practicum.shareit.item.AvailabilityIntervalDto;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ItemAvailabilityServiceTest extends IntegrationTestBase {
+    private static final LocalDateTime START = LocalDateTime.of(2042, 5, 1, 12, 0);
+    private static final LocalDateTime FROM = START.minusDays(1);
+    private static final LocalDateTime TO = START.plusDays(3);
+
+    @Autowired
+    private ItemAvailabilityService itemAvailabilityService;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = createUser();
+        bookerId = createUser();
+        itemId = createItem(ownerId, "Лестница", "Складная лестница");
+        bookingService.createBooking(bookerId, booking(itemId, START, START.plusDays(1)));
+    }
+
+    @Test
+    void freesIntervalOfBookingDeletedWithBooker() {
+        assertThat(itemAvailabilityService.getAvailability(itemId, FROM, TO).getIntervals())
+                .containsExactly(new AvailabilityIntervalDto(FROM, START, true),
+                        new AvailabilityIntervalDto(START, START.plusDays(1), false),
+                        new AvailabilityIntervalDto(START.plusDays(1), TO, true));
+
+        userService.deleteById(bookerId);
+
+        assertThat(itemAvailabilityService.getAvailability(itemId, FROM, TO).getIntervals())
+                .containsExactly(new AvailabilityIntervalDto(FROM, TO, true));
+    }
+
+    @Test
+    void rejectsItemDeletedWithOwner() {
+        itemAvailabilityService.getAvailability(itemId, FROM, TO);
+
+        userService.deleteById(ownerId);
+
+        assertThatThrownBy(() -> itemAvailabilityService.getAvailability(itemId, FROM, TO))
+                .isInstanceOf(ItemNotFoundException.class);
+    }
+}
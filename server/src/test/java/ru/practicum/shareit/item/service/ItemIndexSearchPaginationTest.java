@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "shareit.search.engine=index")
+class ItemIndexSearchPaginationTest extends ItemSearchPaginationTest {
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.IntegrationTestBase;
+import ru.practicum.shareit.item.ItemSearchMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemSearchPaginationTest extends IntegrationTestBase {
+    private String token;
+    private final List<Long> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        long ownerId = createUser();
+        token = "ключ" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        for (int i = 0; i < 5; i++) {
+            itemIds.add(createItem(ownerId, "Вещь " + token, "Описание " + i));
+        }
+    }
+
+    @Test
+    void pagesThroughExactMatchesByOffset() {
+        assertPages(ItemSearchMode.EXACT);
+    }
+
+    @Test
+    void pagesThroughFuzzyMatchesByOffset() {
+        assertPages(ItemSearchMode.FUZZY);
+    }
+
+    private void assertPages(ItemSearchMode mode) {
+        assertThat(search(mode, 0, 2)).containsExactly(itemIds.get(0), itemIds.get(1));
+        assertThat(search(mode, 2, 2)).containsExactly(itemIds.get(2), itemIds.get(3));
+        assertThat(search(mode, 4, 2)).containsExactly(itemIds.get(4));
+    }
+
+    private List<Long> search(ItemSearchMode mode, int from, int size) {
+        List<Long> ids = new ArrayList<>();
+        itemService.searchItemsByText(token, mode, from, size).forEach(itemDto -> ids.add(itemDto.getId()));
+        return ids;
+    }
+}
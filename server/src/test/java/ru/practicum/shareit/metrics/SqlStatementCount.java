@@ -0,0 +1,36 @@
+package ru.practicum.shareit.metrics;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверки числа SQL-запросов и строк эндпоинта по заголовкам, которые пишет SqlStatisticsResponseAdvice.
+ */
+public final class SqlStatementCount {
+    private SqlStatementCount() {
+    }
+
+    public static ResultMatcher atMost(long budget) {
+        return result -> assertThat(statements(result))
+                .as("SQL-запросов в %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(budget);
+    }
+
+    public static ResultMatcher rowsAtMost(long budget) {
+        return result -> assertThat(header(result, SqlStatisticsResponseAdvice.ROWS_HEADER))
+                .as("строк в %s %s", result.getRequest().getMethod(), result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(budget);
+    }
+
+    public static long statements(MvcResult result) {
+        return header(result, SqlStatisticsResponseAdvice.STATEMENTS_HEADER);
+    }
+
+    private static long header(MvcResult result, String name) {
+        String value = result.getResponse().getHeader(name);
+        assertThat(value).as("заголовок %s", name).isNotNull();
+        return Long.parseLong(value);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.IntegrationTestBase;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+class SqlStatisticsTest extends IntegrationTestBase {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final LocalDateTime START = LocalDateTime.of(2040, 3, 1, 12, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void ownerBookingListRunsSameStatementsForOneAndManyBookings() throws Exception {
+        long ownerId = createUser();
+        long bookerId = createUser();
+        createBooking(bookerId, createItem(ownerId), 0);
+        long oneBooking = SqlStatementCount.statements(mockMvc.perform(get("/bookings/owner").header(USER_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andReturn());
+
+        for (int i = 1; i < 5; i++) {
+            createBooking(bookerId, createItem(ownerId), i);
+        }
+
+        long fiveBookings = SqlStatementCount.statements(mockMvc.perform(get("/bookings/owner").header(USER_HEADER, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(SqlStatementCount.atMost(2))
+                .andExpect(SqlStatementCount.rowsAtMost(5))
+                .andReturn());
+        assertThat(fiveBookings).isEqualTo(oneBooking);
+    }
+
+    private void createBooking(long bookerId, long itemId, int day) {
+        bookingService.createBooking(bookerId, booking(itemId, START.plusDays(day), START.plusDays(day).plusHours(1)));
+    }
+}